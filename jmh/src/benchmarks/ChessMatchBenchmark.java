@@ -0,0 +1,69 @@
+package benchmarks;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import chess.enums.Color;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessMatchBenchmark {
+
+    private ChessMatch middlegame;
+    private ChessMatch check;
+    private ChessMatch checkMate;
+    private ChessPosition source;
+    private ChessPosition target;
+    private ChessPosition checkedKing;
+    private MoveList moves;
+
+    @Setup
+    public void setup() {
+        middlegame = Positions.play(Positions.MIDDLEGAME);
+        check = Positions.play(Positions.CHECK);
+        checkMate = Positions.play(Positions.CHECKMATE);
+        source = Positions.position("e4d5", 0);
+        target = Positions.position("e4d5", 2);
+        checkedKing = Positions.position("e8", 0);
+        moves = new MoveList();
+    }
+
+    //performChessMove runs validation, the move itself and the check/mate tests; undoChessMove puts the position and
+    //the flags back, so every invocation starts from the same state
+    @Benchmark
+    public ChessPiece performChessMove() {
+        ChessPiece captured = middlegame.performChessMove(source, target);
+        middlegame.undoChessMove();
+        return captured;
+    }
+
+    @Benchmark
+    public boolean testCheck() {
+        return check.isSquareAttacked(checkedKing, Color.WHITE);
+    }
+
+    @Benchmark
+    public int generateLegalMovesMiddlegame() {
+        middlegame.generateLegalMoves(moves);
+        return moves.size();
+    }
+
+    @Benchmark
+    public int generateLegalMovesCheckMate() {
+        checkMate.generateLegalMoves(moves);
+        return moves.size();
+    }
+
+    @Benchmark
+    public ChessPiece[][] getPieces() {
+        return middlegame.getPieces();
+    }
+}
@@ -0,0 +1,45 @@
+package benchmarks;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.enums.Color;
+import chess.enums.PieceType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    public PieceType type;
+
+    private ChessPiece piece;
+
+    @Setup
+    public void setup() {
+        ChessMatch match = Positions.play(Positions.MIDDLEGAME);
+        for (ChessPiece[] row : match.getPieces()) {
+            for (ChessPiece p : row) {
+                if (p != null && p.getColor() == Color.WHITE && p.getType() == type && (piece == null || p.isThereAnyPossibleMove())) {
+                    piece = p;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean[][] possibleMoves() {
+        return piece.possibleMoves();
+    }
+
+    @Benchmark
+    public long possibleMovesBitboard() {
+        return piece.possibleMovesBitboard();
+    }
+}
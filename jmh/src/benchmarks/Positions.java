@@ -0,0 +1,26 @@
+package benchmarks;
+
+import chess.ChessMatch;
+import chess.ChessPosition;
+
+public final class Positions {
+
+    public static final String[] MIDDLEGAME = {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5", "c2c3", "g8f6", "d2d4", "e5d4", "c3d4", "c5b4", "b1c3", "d7d5"};
+    public static final String[] CHECK = {"e2e4", "f7f5", "d1h5"};
+    public static final String[] CHECKMATE = {"e2e4", "e7e5", "d1h5", "b8c6", "f1c4", "g8f6", "h5f7"};
+
+    private Positions() {
+    }
+
+    public static ChessMatch play(String[] moves) {
+        ChessMatch match = new ChessMatch();
+        for (String move : moves) {
+            match.performChessMove(position(move, 0), position(move, 2));
+        }
+        return match;
+    }
+
+    public static ChessPosition position(String move, int offset) {
+        return new ChessPosition(move.charAt(offset), move.charAt(offset + 1) - '0');
+    }
+}
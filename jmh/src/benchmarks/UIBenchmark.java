@@ -0,0 +1,48 @@
+package benchmarks;
+
+import application.UI;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UIBenchmark {
+
+    private ChessPiece[][] pieces;
+    private boolean[][] possibleMoves;
+    private PrintStream out;
+
+    @Setup
+    public void setup() {
+        ChessMatch match = Positions.play(Positions.MIDDLEGAME);
+        pieces = match.getPieces();
+        possibleMoves = match.possibleMoves(Positions.position("f3", 0));
+        out = System.out;
+        //measure the rendering, not the terminal
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public void printBoard() {
+        UI.printBoard(pieces);
+    }
+
+    @Benchmark
+    public void printBoardWithPossibleMoves() {
+        UI.printBoard(pieces, possibleMoves);
+    }
+}
@@ -0,0 +1,81 @@
+package application;
+
+import chess.ChessPiece;
+import chess.enums.Color;
+
+import java.io.PrintStream;
+
+//draws the board in place: each frame is built in one reused buffer and written with a single flush, and after the
+//first frame only the squares whose piece or highlight changed are rewritten, by moving the cursor onto them
+public class BoardRenderer {
+
+    private static final int SIZE = 8;
+    //rows are 1-based: the eight ranks, the file letters, then the status text
+    private static final int STATUS_ROW = SIZE + 2;
+    //each square takes two columns ("P "), after the rank number and its space
+    private static final int FIRST_COLUMN = 3;
+
+    private static final int WHITE_PIECE = 1 << 8;
+    private static final int HIGHLIGHT = 1 << 9;
+
+    private PrintStream out;
+    private StringBuilder frame = new StringBuilder(2048);
+    private int[] cells = new int[SIZE * SIZE];
+    private boolean drawn;
+
+    public BoardRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    //the next frame is drawn in full, e.g. after something else wrote over the screen
+    public void invalidate() {
+        drawn = false;
+    }
+
+    public void render(ChessPiece[][] pieces, boolean[][] highlights, CharSequence status) {
+        frame.setLength(0);
+        if (!drawn) {
+            frame.append("\033[H\033[2J\033[3J");
+            UI.appendBoard(frame, pieces, highlights);
+        }
+
+        //a changed square right after the last written one needs no cursor move
+        int cursor = -1;
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                ChessPiece piece = pieces[i][j];
+                boolean highlight = highlights != null && highlights[i][j];
+                int cell = cell(piece, highlight);
+                int square = i * SIZE + j;
+                if (drawn && cells[square] != cell) {
+                    if (cursor != square) {
+                        moveCursor(i + 1, FIRST_COLUMN + j * 2);
+                    }
+                    UI.appendPiece(frame, piece, highlight);
+                    cursor = j == SIZE - 1 ? -1 : square + 1;
+                }
+                cells[square] = cell;
+            }
+        }
+        drawn = true;
+
+        //the status text changes length from frame to frame, so everything under the board is cleared first
+        moveCursor(STATUS_ROW, 1);
+        frame.append("\033[J").append(status);
+        out.append(frame);
+        out.flush();
+    }
+
+    private void moveCursor(int row, int column) {
+        frame.append("\033[").append(row).append(';').append(column).append('H');
+    }
+
+    //what the square shows: the piece letter, its color and the highlight; 0 for a plain empty square
+    private static int cell(ChessPiece piece, boolean highlight) {
+        int cell = highlight ? HIGHLIGHT : 0;
+        if (piece != null) {
+            cell |= piece.toString().charAt(0) | (piece.getColor() == Color.WHITE ? WHITE_PIECE : 0);
+        }
+        return cell;
+    }
+}
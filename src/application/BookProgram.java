@@ -0,0 +1,54 @@
+package application;
+
+import chess.ChessMatch;
+import chess.MatchListener;
+import chess.book.OpeningBookWriter;
+import chess.enums.Color;
+import chess.pgn.GameValidation;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+import chess.pgn.PgnValidator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class BookProgram {
+
+    //builds an opening book from the first plies of every game in a PGN file; a move weighs 2 for a win of the side
+    //that played it, 0 for a loss and 1 otherwise, so moves only ever played in lost games are left out of the book
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BookProgram <file.pgn> <book.bin> [plies]");
+            return;
+        }
+        int maxPlies = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        long start = System.currentTimeMillis();
+        OpeningBookWriter writer = new OpeningBookWriter();
+        long games = 0;
+        try (PgnReader reader = new PgnReader(Path.of(args[0]))) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                String result = game.getTag("Result");
+                int whiteWeight = "1-0".equals(result) ? 2 : "0-1".equals(result) ? 0 : 1;
+                int blackWeight = "0-1".equals(result) ? 2 : "1-0".equals(result) ? 0 : 1;
+                GameValidation validation = PgnValidator.validate(game, new MatchListener() {
+                    @Override
+                    public void beforeMove(ChessMatch match, int move) {
+                        if (match.getPly() < maxPlies) {
+                            writer.add(match, move, match.getCurrentPlayer() == Color.WHITE ? whiteWeight : blackWeight);
+                        }
+                    }
+                });
+                if (validation.getStatus() == GameValidation.Status.VALID) {
+                    games++;
+                }
+            }
+        }
+        long entries = writer.write(Path.of(args[1]));
+        System.out.printf("Games: %d%n", games);
+        System.out.printf("Positions: %d%n", writer.getPositions());
+        System.out.printf("Entries: %d%n", entries);
+        System.out.printf("Time: %d ms%n", System.currentTimeMillis() - start);
+    }
+}
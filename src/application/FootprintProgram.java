@@ -0,0 +1,52 @@
+package application;
+
+import chess.ChessMatch;
+import chess.MoveList;
+import chess.PositionSnapshot;
+
+public class FootprintProgram {
+
+    //keeps many live games in memory and reports the heap they take, per game
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        long before = usedMemory();
+        ChessMatch[] matches = new ChessMatch[games];
+        MoveList moves = new MoveList();
+        for (int i = 0; i < games; i++) {
+            ChessMatch match = new ChessMatch();
+            for (int ply = 0; ply < plies; ply++) {
+                match.generateLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                //a cheap deterministic spread, so the games do not all share one line
+                match.makeMove(moves.get((i + ply * 7) % moves.size()));
+            }
+            matches[i] = match;
+        }
+        long matchBytes = usedMemory() - before;
+
+        before = usedMemory();
+        PositionSnapshot[] snapshots = new PositionSnapshot[games];
+        for (int i = 0; i < games; i++) {
+            snapshots[i] = matches[i].toSnapshot();
+        }
+        long snapshotBytes = usedMemory() - before;
+
+        System.out.printf("Games: %d, plies: %d%n", games, plies);
+        System.out.printf("ChessMatch: %d bytes per game%n", matchBytes / games);
+        System.out.printf("PositionSnapshot: %d bytes per position%n", snapshotBytes / games);
+        //keeps both arrays reachable until after the measurements
+        System.out.printf("(%d, %d)%n", matches[games - 1].getPly(), snapshots[games - 1].getState() & 1);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,28 @@
+package application;
+
+import chess.Attacks;
+
+public class MagicProgram {
+
+    //searches the magic numbers again and prints them as the arrays Attacks embeds; the search is seeded, and square
+    //by square, rook then bishop, is the order the embedded numbers were found in
+    public static void main(String[] args) {
+        long[] rookMagics = new long[64];
+        long[] bishopMagics = new long[64];
+        for (int square = 0; square < 64; square++) {
+            rookMagics[square] = Attacks.findRookMagic(square);
+            bishopMagics[square] = Attacks.findBishopMagic(square);
+        }
+        print("ROOK_MAGICS", rookMagics);
+        print("BISHOP_MAGICS", bishopMagics);
+    }
+
+    private static void print(String name, long[] magics) {
+        StringBuilder sb = new StringBuilder("    private static final long[] ").append(name).append(" = {\n");
+        for (int square = 0; square < 64; square++) {
+            sb.append(square % 4 == 0 ? "            " : " ").append(String.format("0x%016XL", magics[square]));
+            sb.append(square == 63 ? "\n" : square % 4 == 3 ? ",\n" : ",");
+        }
+        System.out.print(sb.append("    };\n"));
+    }
+}
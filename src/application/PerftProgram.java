@@ -0,0 +1,41 @@
+package application;
+
+import chess.ChessMatch;
+import chess.Fen;
+import chess.Perft;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftProgram {
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        //the rest of the arguments is a FEN, e.g. kiwipete: r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1
+        String fen = args.length > 2 ? String.join(" ", Arrays.copyOfRange(args, 2, args.length)) : Fen.START_POSITION;
+
+        ChessMatch chessMatch = ChessMatch.fromFen(fen);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            Map<String, Long> divide = Perft.divide(chessMatch, depth, pool);
+            long elapsed = System.nanoTime() - start;
+
+            long nodes = 0;
+            for (Map.Entry<String, Long> entry : divide.entrySet()) {
+                System.out.printf("%s: %d%n", entry.getKey(), entry.getValue());
+                nodes += entry.getValue();
+            }
+            System.out.println();
+            System.out.printf("Position: %s%n", fen);
+            System.out.printf("Depth: %d%n", depth);
+            System.out.printf("Nodes: %d%n", nodes);
+            System.out.printf("Time: %d ms%n", elapsed / 1_000_000);
+            System.out.printf("Nodes/second: %d%n", elapsed > 0 ? nodes * 1_000_000_000L / elapsed : 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
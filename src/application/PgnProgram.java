@@ -0,0 +1,29 @@
+package application;
+
+import chess.pgn.GameValidation;
+import chess.pgn.PgnSummary;
+import chess.pgn.PgnValidator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class PgnProgram {
+
+    //replays every game of a PGN file and reports the ones that can not be read or contain an illegal move
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: PgnProgram <file.pgn> [threads]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        PgnSummary summary = PgnValidator.validate(Path.of(args[0]), threads);
+        for (GameValidation failure : summary.getFailures()) {
+            System.out.println(failure);
+        }
+        if (summary.getGames() - summary.getValid() > summary.getFailures().size()) {
+            System.out.printf("(only the first %d failures are listed)%n", summary.getFailures().size());
+        }
+        System.out.println(summary);
+    }
+}
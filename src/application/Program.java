@@ -1,48 +1,128 @@
 package application;
 
 import chess.ChessMatch;
-import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.MoveList;
+import chess.book.OpeningBook;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.enums.Color;
 import chess.exceptions.ChessException;
+import chess.log.GameLog;
+import chess.notation.Notation;
+import chess.notation.San;
 
-import java.util.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
 
 public class Program {
 
-    public static void main(String[] args) {
-        ChessMatch chessMatch = new ChessMatch();
-        Scanner scanner = new Scanner(System.in);
-        List<ChessPiece> captured = new ArrayList<>();
+    public static void main(String[] args) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
 
-        while (!chessMatch.getCheckMate()) {
-            try {
-                UI.clearScreen();
-                UI.printMatch(chessMatch, captured);
-                System.out.println();
-                System.out.print("\nSource: ");
-                ChessPosition source = UI.readChessPosition(scanner);
+        //optional computer opponent: the color it plays ("none" for two players), its thinking time in milliseconds
+        //and its search threads; then an optional game log ("-" for none), resumed when the file already exists, and an
+        //opening book
+        Color computer = args.length > 0 && !args[0].equalsIgnoreCase("none") ? Color.valueOf(args[0].toUpperCase()) : null;
+        long thinkingTime = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Path logFile = args.length > 3 && !args[3].equals("-") ? Path.of(args[3]) : null;
+        OpeningBook book = args.length > 4 ? OpeningBook.open(Path.of(args[4])) : null;
+        GameLog log = logFile == null ? null : Files.exists(logFile) ? GameLog.resume(logFile) : GameLog.create(logFile, new ChessMatch());
+        ChessMatch chessMatch = log != null ? log.getMatch() : new ChessMatch();
+        //the engine's worker threads end with the game
+        try (ParallelSearch engine = new ParallelSearch(threads)) {
+            play(chessMatch, engine, book, reader, computer, thinkingTime);
+        } finally {
+            if (log != null) {
+                log.close();
+            }
+            if (book != null) {
+                book.close();
+            }
+        }
+    }
+
+    private static void play(ChessMatch chessMatch, ParallelSearch engine, OpeningBook book, BufferedReader reader, Color computer, long thinkingTime) throws IOException {
+        MoveList legalMoves = new MoveList();
+        BoardRenderer renderer = new BoardRenderer(System.out);
+        StringBuilder status = new StringBuilder(256);
+        Random random = new Random();
+        String lastSearch = null;
+        String lastMove = null;
 
-                boolean[][] possibleMoves = chessMatch.possibleMoves(source);
+        while (!chessMatch.getCheckMate() && !chessMatch.getStalemate()) {
+            try {
+                if (chessMatch.getCurrentPlayer() == computer) {
+                    //a book move is played at once; the engine only thinks once the game has left the book
+                    int move = book != null ? book.pickMove(chessMatch, random) : 0;
+                    if (move != 0) {
+                        lastSearch = "book";
+                    } else {
+                        SearchResult result = engine.search(chessMatch, SearchLimits.time(thinkingTime));
+                        move = result.getBestMove();
+                        lastSearch = result.toString();
+                    }
+                    lastMove = San.toString(chessMatch, move);
+                    chessMatch.performChessMove(move);
+                    continue;
+                }
 
-                UI.clearScreen();
-                UI.printBoard(chessMatch.getPieces(), possibleMoves);
+                status.setLength(0);
+                UI.appendStatus(status, chessMatch, chessMatch.getCapturedPieces());
+                if (lastSearch != null) {
+                    status.append("\nComputer played ").append(lastMove).append(" (").append(lastSearch).append(')');
+                }
+                //a whole move in one line ("e2e4", "Nf3", "O-O"), or just the source square to see its moves first
+                status.append("\n\nMove or source: ");
+                renderer.render(chessMatch.getPieces(), null, status);
+                String line = UI.readLine(reader);
+                if (line == null) {
+                    return;
+                }
 
-                System.out.println();
-                System.out.print("Target: ");
-                ChessPosition target = UI.readChessPosition(scanner);
+                //a bare square is a source when it holds one of the player's pieces, otherwise a pawn move such as "e4"
+                if (isOwnPiece(chessMatch, Notation.parseSquare(line, 0, line.length()))) {
+                    ChessPosition source = UI.readChessPosition(line);
+                    boolean[][] possibleMoves = chessMatch.possibleMoves(source);
 
-                ChessPiece capturedPiece = chessMatch.performChessMove(source, target);
-                if (capturedPiece != null) {
-                    captured.add(capturedPiece);
+                    renderer.render(chessMatch.getPieces(), possibleMoves, "\nTarget: ");
+                    line = UI.readLine(reader);
+                    if (line == null) {
+                        return;
+                    }
+                    chessMatch.performChessMove(source, UI.readChessPosition(line));
+                } else {
+                    int move = Notation.parseMove(chessMatch, line, legalMoves);
+                    if (move < 0) {
+                        throw new ChessException(switch (move) {
+                            case Notation.AMBIGUOUS -> "Ambiguous move: " + line.trim();
+                            case Notation.NO_MOVE -> "There is no legal move " + line.trim();
+                            default -> "Error reading move: use a square (e2), a move (e2e4) or SAN (Nf3, O-O)";
+                        });
+                    }
+                    chessMatch.performChessMove(move);
                 }
-            } catch (ChessException | InputMismatchException e) {
+            } catch (ChessException e) {
                 System.out.println("\n" + e.getMessage());
-                scanner.nextLine();
                 System.out.println("Press ENTER to continue");
-                scanner.nextLine();
+                if (UI.readLine(reader) == null) {
+                    return;
+                }
             }
         }
-        UI.clearScreen();
-        UI.printMatch(chessMatch, captured);
+        renderer.render(chessMatch.getPieces(), null, UI.appendStatus(new StringBuilder(), chessMatch, chessMatch.getCapturedPieces()));
+    }
+
+    private static boolean isOwnPiece(ChessMatch match, int square) {
+        if (square < 0 || match.getPieceType(square) == null) {
+            return false;
+        }
+        return (match.getBitboard(match.getCurrentPlayer(), match.getPieceType(square)) & (1L << square)) != 0;
     }
 }
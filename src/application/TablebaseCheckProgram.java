@@ -0,0 +1,152 @@
+package application;
+
+import chess.ChessMatch;
+import chess.MoveList;
+import chess.enums.PieceType;
+import chess.exceptions.ChessException;
+import chess.tablebase.Endgame;
+import chess.tablebase.Tablebases;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class TablebaseCheckProgram {
+
+    private static final String PIECE_LETTERS = "PNBRQK";
+
+    //checks the tables of a directory against ChessMatch's own move generator: the value of every legal position has
+    //to be the minimax of its children's values, one ply further from mate; tables larger than the sample size are
+    //checked on that many random positions, each with a random color as the stronger side
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: TablebaseCheckProgram <directory> [samples]");
+            return;
+        }
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Random random = new Random(7);
+        MoveList moves = new MoveList();
+        long failures = 0;
+        try (Tablebases tablebases = Tablebases.open(Path.of(args[0]))) {
+            for (Endgame endgame : Endgame.values()) {
+                if (!tablebases.contains(endgame)) {
+                    System.out.printf("%s: no table%n", endgame);
+                    continue;
+                }
+                long start = System.currentTimeMillis();
+                boolean sampled = endgame.size() > samples;
+                int count = sampled ? samples : endgame.size();
+                long checked = 0;
+                long mismatches = 0;
+                for (int i = 0; i < count; i++) {
+                    int index = sampled ? random.nextInt(endgame.size()) : i;
+                    ChessMatch match = position(endgame, index, random.nextBoolean());
+                    if (match == null) {
+                        continue;
+                    }
+                    int value = tablebases.probe(match);
+                    int expected = minimax(tablebases, match, moves);
+                    checked++;
+                    if (value != expected && mismatches++ < 5) {
+                        System.out.printf("%s: %s probes %d, its children give %d%n", endgame, match.toFen(), value, expected);
+                    }
+                }
+                failures += mismatches;
+                System.out.printf("%s: %d positions checked%s, %d mismatches, %d ms%n", endgame, checked,
+                        sampled ? " (sampled)" : "", mismatches, System.currentTimeMillis() - start);
+            }
+        }
+        System.out.println(failures == 0 ? "OK" : "FAILED");
+    }
+
+    //the best child for the side to move, seen from its side: a child lost for the opponent in n plies is a win in
+    //n + 1, a child won for the opponent in n plies is a loss in n + 1; a child outside every table can only be
+    //a pawn promoted to a bishop or a knight, which can not mate
+    private static int minimax(Tablebases tablebases, ChessMatch match, MoveList moves) {
+        match.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return match.isInCheck() ? -Tablebases.MATE : Tablebases.DRAW;
+        }
+        int[] legal = new int[moves.size()];
+        for (int i = 0; i < legal.length; i++) {
+            legal[i] = moves.get(i);
+        }
+        int best = Integer.MIN_VALUE;
+        for (int move : legal) {
+            match.makeMove(move);
+            int child = tablebases.probe(match);
+            match.undoMove();
+            int value = child == Tablebases.UNKNOWN || child == Tablebases.DRAW ? Tablebases.DRAW : child > 0 ? -(child - 1) : -child - 1;
+            best = Math.max(best, value);
+        }
+        return best;
+    }
+
+    //the position of a table index, mirrored to black as the stronger side if asked; null when it is not legal
+    private static ChessMatch position(Endgame endgame, int index, boolean mirror) {
+        int pieces = endgame.getPieceCount();
+        int side = index >>> (6 * (2 + pieces));
+        int strongKing = (index >>> (6 * (1 + pieces))) & 63;
+        int weakKing = (index >>> (6 * pieces)) & 63;
+        int[] squares = new int[2 + pieces];
+        char[] letters = new char[2 + pieces];
+        squares[0] = strongKing;
+        letters[0] = 'K';
+        squares[1] = weakKing;
+        letters[1] = 'k';
+        PieceType[] types = endgame.getPieces();
+        for (int i = 0; i < pieces; i++) {
+            squares[2 + i] = (index >>> (6 * (pieces - 1 - i))) & 63;
+            letters[2 + i] = PIECE_LETTERS.charAt(types[i].ordinal());
+            if (types[i] == PieceType.PAWN && (squares[2 + i] < 8 || squares[2 + i] >= 56)) {
+                return null;
+            }
+        }
+        if (Math.abs(strongKing / 8 - weakKing / 8) <= 1 && Math.abs(strongKing % 8 - weakKing % 8) <= 1) {
+            return null;
+        }
+
+        char[] board = new char[64];
+        for (int i = 0; i < squares.length; i++) {
+            int square = mirror ? squares[i] ^ 56 : squares[i];
+            if (board[square] != 0) {
+                return null;
+            }
+            char letter = letters[i];
+            board[square] = mirror ? (Character.isUpperCase(letter) ? Character.toLowerCase(letter) : Character.toUpperCase(letter)) : letter;
+        }
+        boolean whiteToMove = (side == Endgame.STRONG_TO_MOVE) != mirror;
+        try {
+            return ChessMatch.fromFen(fen(board, whiteToMove));
+        } catch (ChessException e) {
+            //the side that just moved has left its king in check
+            return null;
+        }
+    }
+
+    private static String fen(char[] board, boolean whiteToMove) {
+        StringBuilder sb = new StringBuilder(40);
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int column = 0; column < 8; column++) {
+                char piece = board[row * 8 + column];
+                if (piece == 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                sb.append(piece);
+            }
+            if (empty > 0) {
+                sb.append(empty);
+            }
+            if (row < 7) {
+                sb.append('/');
+            }
+        }
+        return sb.append(whiteToMove ? " w - - 0 1" : " b - - 0 1").toString();
+    }
+}
@@ -0,0 +1,51 @@
+package application;
+
+import chess.tablebase.Endgame;
+import chess.tablebase.TablebaseGenerator;
+import chess.tablebase.Tablebases;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class TablebaseProgram {
+
+    //generates every table into the directory, in the order of Endgame, since KPK promotes into KQK and KRK
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: TablebaseProgram <directory> [threads]");
+            return;
+        }
+        Path directory = Path.of(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Files.createDirectories(directory);
+
+        Map<Endgame, byte[]> generated = new EnumMap<>(Endgame.class);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Endgame endgame : Endgame.values()) {
+                long start = System.currentTimeMillis();
+                byte[] values = TablebaseGenerator.generate(endgame, pool, generated);
+                generated.put(endgame, values);
+                Path file = directory.resolve(endgame.getFileName());
+                Tablebases.write(file, values);
+
+                long wins = 0;
+                int longest = 0;
+                for (int i = 0; i < endgame.size() / 2; i++) {
+                    if (values[i] != 0) {
+                        wins++;
+                        longest = Math.max(longest, values[i] - 1);
+                    }
+                }
+                System.out.printf("%s: %d positions, %d wins with the stronger side to move, longest mate %d plies, %d KB, %d ms%n",
+                        endgame, endgame.size(), wins, longest, Files.size(file) / 1024, System.currentTimeMillis() - start);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
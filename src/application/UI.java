@@ -5,11 +5,13 @@ import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.ChessPosition;
 import chess.enums.Color;
+import chess.notation.Notation;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
-import java.util.InputMismatchException;
 import java.util.List;
-import java.util.Scanner;
 
 public class UI {
 
@@ -32,87 +34,102 @@ public class UI {
     public static final String ANSI_CYAN_BACKGROUND = "\u001B[46m";
     public static final String ANSI_WHITE_BACKGROUND = "\u001B[47m";
 
-    public static ChessPosition readChessPosition(Scanner scanner) {
-        try {
-            String s = scanner.next();
-            char chessPositionChar = s.toLowerCase().charAt(0);
-            int chessPositionNumber = Integer.parseInt(s.substring(1));
-            return new ChessPosition(chessPositionChar, chessPositionNumber);
-        } catch (InputMismatchException | NumberFormatException e) {
+    public static ChessPosition readChessPosition(CharSequence line) {
+        int square = Notation.parseSquare(line, 0, line.length());
+        if (square < 0) {
             throw new BoardException("Error reading ChessPosition: Valid values are from a1 to h8");
         }
+        return new ChessPosition((char) ('a' + square % 8), 8 - square / 8);
     }
 
-    public static void printMatch(ChessMatch match, List<ChessPiece> capturedPieces) {
-        printBoard(match.getPieces());
-        printCapturedPieces(capturedPieces);
-        System.out.printf("%n%nTurn: %d%n", match.getTurn());
-        if(!match.getCheckMate()) {
-            System.out.printf("Waiting for player: %s", match.getCurrentPlayer().toString());
-            if (match.getCheck()) {
-                System.out.print("\nCHECK!");
-            }
-        } else {
-            System.out.println("\nCHECKMATE!");
-            System.out.printf("Winner: %s", match.getCurrentPlayer().toString());
-            System.out.println();
+    //one line of input, or null when the input has ended
+    public static String readLine(BufferedReader reader) {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
+    //each print builds its text first and writes it at once, instead of a write per color code and square
+    public static void printMatch(ChessMatch match, List<ChessPiece> capturedPieces) {
+        StringBuilder sb = new StringBuilder(1024);
+        appendBoard(sb, match.getPieces(), null);
+        appendStatus(sb, match, capturedPieces);
+        print(sb);
+    }
+
     public static void printBoard(ChessPiece[][] pieces) {
-        for (int i = 0; i < pieces.length; i++) {
-            System.out.print((8 - i) + " ");
-            for (int j = 0; j < pieces.length; j++) {
-                printPiece(pieces[i][j], false);
+        print(appendBoard(new StringBuilder(1024), pieces, null));
+    }
+
+    public static void printBoard(ChessPiece[][] pieces, boolean[][] possibleMoves) {
+        print(appendBoard(new StringBuilder(1024), pieces, possibleMoves));
+    }
+
+    //the text printMatch shows under the board: captured pieces, turn and the state of the game
+    public static StringBuilder appendStatus(StringBuilder sb, ChessMatch match, List<ChessPiece> capturedPieces) {
+        appendCapturedPieces(sb, capturedPieces);
+        sb.append("\n\nTurn: ").append(match.getTurn()).append('\n');
+        if (match.getStalemate()) {
+            sb.append("\nSTALEMATE!\n");
+            sb.append("Draw\n");
+        } else if(!match.getCheckMate()) {
+            sb.append("Waiting for player: ").append(match.getCurrentPlayer());
+            if (match.getCheck()) {
+                sb.append("\nCHECK!");
             }
-            System.out.println();
+        } else {
+            sb.append("\nCHECKMATE!\n");
+            sb.append("Winner: ").append(match.getCurrentPlayer() == Color.WHITE ? Color.BLACK : Color.WHITE);
+            sb.append('\n');
         }
-        System.out.println("  a b c d e f g h");
+        return sb;
     }
 
-    public static void printBoard(ChessPiece[][] pieces, boolean[][] possibleMoves) {
+    static StringBuilder appendBoard(StringBuilder sb, ChessPiece[][] pieces, boolean[][] possibleMoves) {
         for (int i = 0; i < pieces.length; i++) {
-            System.out.print((8 - i) + " ");
+            sb.append(8 - i).append(' ');
             for (int j = 0; j < pieces.length; j++) {
-                printPiece(pieces[i][j], possibleMoves[i][j]);
+                appendPiece(sb, pieces[i][j], possibleMoves != null && possibleMoves[i][j]);
             }
-            System.out.println();
+            sb.append('\n');
         }
-        System.out.println("  a b c d e f g h");
+        return sb.append("  a b c d e f g h\n");
     }
 
-    private static void printPiece(ChessPiece piece, boolean background) {
+    static StringBuilder appendPiece(StringBuilder sb, ChessPiece piece, boolean background) {
         if(background) {
-            System.out.print(ANSI_BLUE_BACKGROUND);
+            sb.append(ANSI_BLUE_BACKGROUND);
         }
         if (piece == null) {
-            System.out.print("-" + ANSI_RESET);
+            sb.append('-');
         } else {
-            if (piece.getColor() == Color.WHITE) {
-                System.out.print(ANSI_WHITE + piece + ANSI_RESET);
-            } else {
-                System.out.print(ANSI_YELLOW + piece + ANSI_RESET);
-            }
+            sb.append(piece.getColor() == Color.WHITE ? ANSI_WHITE : ANSI_YELLOW).append(piece);
         }
-
-        System.out.print(" ");
+        return sb.append(ANSI_RESET).append(' ');
     }
 
-    private static void printCapturedPieces(List<ChessPiece> captured) {
+    private static void appendCapturedPieces(StringBuilder sb, List<ChessPiece> captured) {
         List<ChessPiece> whitePieces = captured.stream().filter(x -> x.getColor() == Color.WHITE).toList();
         List<ChessPiece> blackPieces = captured.stream().filter(x -> x.getColor() == Color.BLACK).toList();
 
-        System.out.println();
-        System.out.print("White: ");
-        System.out.print(ANSI_WHITE);
-        System.out.print(Arrays.toString(whitePieces.toArray()));
-        System.out.print(ANSI_RESET);
-
-        System.out.println();
-        System.out.print("Black: ");
-        System.out.print(ANSI_YELLOW);
-        System.out.print(Arrays.toString(blackPieces.toArray()));
-        System.out.print(ANSI_RESET);
+        sb.append('\n');
+        sb.append("White: ");
+        sb.append(ANSI_WHITE);
+        sb.append(Arrays.toString(whitePieces.toArray()));
+        sb.append(ANSI_RESET);
+
+        sb.append('\n');
+        sb.append("Black: ");
+        sb.append(ANSI_YELLOW);
+        sb.append(Arrays.toString(blackPieces.toArray()));
+        sb.append(ANSI_RESET);
+    }
+
+    private static void print(CharSequence text) {
+        System.out.print(text);
+        System.out.flush();
     }
 
     public static void clearScreen() {
@@ -0,0 +1,359 @@
+package application;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+import chess.TranspositionTable;
+import chess.book.OpeningBook;
+import chess.engine.Engine;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.enums.Color;
+import chess.exceptions.ChessException;
+import chess.notation.Uci;
+import chess.tablebase.Tablebases;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+//headless front-end speaking the UCI protocol on stdin/stdout, so GUIs, tournament managers and scripts can drive the engine
+public class UciProgram {
+
+    private static final String NAME = "chess-console-java";
+    private static final int MAX_THREADS = 256;
+    private static final int MAX_HASH_MB = 4096;
+
+    private PrintStream out;
+    private ChessMatch match = new ChessMatch();
+    private MoveList legalMoves = new MoveList();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int hashMb = 64;
+    private TranspositionTable transpositionTable = new TranspositionTable(hashMb);
+    private ParallelSearch engine = new ParallelSearch(transpositionTable, threads);
+    private OpeningBook book;
+    private Tablebases tablebases;
+    private Random random = new Random();
+    private Thread searchThread;
+    private CountDownLatch stopSignal;
+
+    public UciProgram(PrintStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        UciProgram uci = new UciProgram(System.out);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!uci.execute(line)) {
+                break;
+            }
+        }
+        uci.close();
+    }
+
+    //runs one command line; false once the GUI has asked to quit
+    public boolean execute(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        try {
+            switch (tokens[0]) {
+                case "uci" -> {
+                    send("id name " + NAME);
+                    send("id author patrociniodev");
+                    send("option name Threads type spin default " + threads + " min 1 max " + MAX_THREADS);
+                    send("option name Hash type spin default " + hashMb + " min 1 max " + MAX_HASH_MB);
+                    send("option name Book type string default <empty>");
+                    send("option name Tablebases type string default <empty>");
+                    send("uciok");
+                }
+                case "isready" -> send("readyok");
+                case "ucinewgame" -> {
+                    stopSearch();
+                    transpositionTable.clear();
+                    match = new ChessMatch();
+                }
+                case "setoption" -> setOption(tokens);
+                case "position" -> position(tokens);
+                case "go" -> go(tokens);
+                case "stop" -> stopSearch();
+                case "quit" -> {
+                    return false;
+                }
+                //"d" is not UCI, but handy when driving the engine by hand
+                case "d" -> send(match.toFen());
+                default -> {
+                    //unknown commands are ignored, as the protocol asks
+                }
+            }
+        } catch (ChessException | IllegalArgumentException e) {
+            send("info string " + e.getMessage());
+        }
+        return true;
+    }
+
+    public void close() {
+        stopSearch();
+        engine.close();
+        closeBook();
+        closeTablebases();
+    }
+
+    //setoption name <id> value <x>
+    private void setOption(String[] tokens) {
+        int value = indexOf(tokens, "value");
+        if (tokens.length < 5 || value < 0 || value + 1 >= tokens.length) {
+            return;
+        }
+        String name = String.join(" ", Arrays.copyOfRange(tokens, 2, value));
+        stopSearch();
+        if (name.equalsIgnoreCase("Book")) {
+            setBook(String.join(" ", Arrays.copyOfRange(tokens, value + 1, tokens.length)));
+            return;
+        }
+        if (name.equalsIgnoreCase("Tablebases")) {
+            setTablebases(String.join(" ", Arrays.copyOfRange(tokens, value + 1, tokens.length)));
+            return;
+        }
+        int number = Integer.parseInt(tokens[value + 1]);
+        if (name.equalsIgnoreCase("Threads")) {
+            threads = Math.max(1, Math.min(number, MAX_THREADS));
+        } else if (name.equalsIgnoreCase("Hash")) {
+            hashMb = Math.max(1, Math.min(number, MAX_HASH_MB));
+            transpositionTable = new TranspositionTable(hashMb);
+        } else {
+            return;
+        }
+        engine.close();
+        engine = new ParallelSearch(transpositionTable, threads);
+        engine.setTablebases(tablebases);
+    }
+
+    //position [startpos | fen <fen>] [moves <move>...]
+    private void position(String[] tokens) {
+        stopSearch();
+        int moves = indexOf(tokens, "moves");
+        int end = moves < 0 ? tokens.length : moves;
+        ChessMatch position;
+        if (tokens.length > 1 && tokens[1].equals("fen")) {
+            position = ChessMatch.fromFen(String.join(" ", Arrays.copyOfRange(tokens, 2, end)));
+        } else {
+            position = new ChessMatch();
+        }
+        if (moves >= 0) {
+            for (int i = moves + 1; i < tokens.length; i++) {
+                int move = Uci.parse(position, tokens[i], legalMoves);
+                if (move < 0) {
+                    throw new ChessException("Illegal move " + tokens[i] + " in position " + position.toFen());
+                }
+                position.makeMove(move);
+            }
+        }
+        match = position;
+    }
+
+    //go [depth n] [movetime ms] [wtime ms] [btime ms] [winc ms] [binc ms] [movestogo n] [infinite]
+    private void go(String[] tokens) {
+        stopSearch();
+        int depth = SearchLimits.MAX_DEPTH;
+        long moveTime = 0;
+        long time = 0;
+        long increment = 0;
+        int movesToGo = 0;
+        boolean infinite = false;
+        boolean white = match.getCurrentPlayer() == Color.WHITE;
+        for (int i = 1; i < tokens.length; i++) {
+            String value = i + 1 < tokens.length ? tokens[i + 1] : "0";
+            switch (tokens[i]) {
+                case "depth" -> depth = Integer.parseInt(value);
+                case "movetime" -> moveTime = Long.parseLong(value);
+                case "wtime" -> time = white ? Long.parseLong(value) : time;
+                case "btime" -> time = white ? time : Long.parseLong(value);
+                case "winc" -> increment = white ? Long.parseLong(value) : increment;
+                case "binc" -> increment = white ? increment : Long.parseLong(value);
+                case "movestogo" -> movesToGo = Integer.parseInt(value);
+                case "infinite", "ponder" -> infinite = true;
+                default -> {
+                    //values and unsupported keywords such as nodes or searchmoves
+                }
+            }
+        }
+        if (moveTime == 0 && time > 0 && !infinite) {
+            moveTime = allocateTime(time, increment, movesToGo);
+        }
+
+        //a book move is played at once, without searching
+        int bookMove = book != null && !infinite ? book.pickMove(match, random) : 0;
+        if (bookMove != 0) {
+            send("info string book move");
+            send("bestmove " + Uci.toString(bookMove));
+            return;
+        }
+
+        SearchLimits limits = new SearchLimits(depth, moveTime);
+        ChessMatch position = match.copy();
+        boolean waitForStop = infinite;
+        CountDownLatch signal = new CountDownLatch(1);
+        stopSignal = signal;
+        //a failed search still answers, with the move the shared table holds for the root, so the GUI is never left waiting
+        long rootKey = match.getZobristKey();
+        match.generateLegalMoves(legalMoves);
+        int[] rootMoves = new int[legalMoves.size()];
+        for (int i = 0; i < rootMoves.length; i++) {
+            rootMoves[i] = legalMoves.get(i);
+        }
+        searchThread = new Thread(() -> {
+            SearchResult result = null;
+            try {
+                result = engine.search(position, limits);
+            } catch (RuntimeException e) {
+                send("info string search failed: " + e);
+            }
+            //in infinite mode the best move may only be sent once the GUI says stop
+            if (waitForStop) {
+                try {
+                    signal.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int bestMove;
+            if (result != null) {
+                send(info(result));
+                bestMove = result.getBestMove();
+            } else {
+                bestMove = tableMove(rootKey, rootMoves);
+            }
+            send("bestmove " + (bestMove == 0 ? "0000" : Uci.toString(bestMove)));
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    //the move stored for the position, if it is one of its legal moves
+    private int tableMove(long key, int[] moves) {
+        long entry = transpositionTable.probe(key);
+        int move = entry == 0 ? 0 : TranspositionTable.move(entry);
+        for (int legal : moves) {
+            if (legal == move) {
+                return move;
+            }
+        }
+        return 0;
+    }
+
+    private void setBook(String path) {
+        closeBook();
+        if (path.isEmpty() || path.equals("<empty>")) {
+            return;
+        }
+        try {
+            book = OpeningBook.open(Path.of(path));
+            send("info string book " + path + " with " + book.size() + " entries");
+        } catch (IOException e) {
+            send("info string could not open book " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void closeBook() {
+        if (book == null) {
+            return;
+        }
+        try {
+            book.close();
+        } catch (IOException e) {
+            //read-only, nothing is lost
+        }
+        book = null;
+    }
+
+    //a directory holding the .tb files of TablebaseProgram
+    private void setTablebases(String path) {
+        closeTablebases();
+        if (path.isEmpty() || path.equals("<empty>")) {
+            return;
+        }
+        try {
+            tablebases = Tablebases.open(Path.of(path));
+            engine.setTablebases(tablebases);
+            send("info string tablebases " + path);
+        } catch (IOException e) {
+            send("info string could not open tablebases " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void closeTablebases() {
+        if (tablebases == null) {
+            return;
+        }
+        engine.setTablebases(null);
+        try {
+            tablebases.close();
+        } catch (IOException e) {
+            //read-only, nothing is lost
+        }
+        tablebases = null;
+    }
+
+    //a slice of the clock that leaves room for the moves still to play, never the last 50 ms
+    private static long allocateTime(long time, long increment, int movesToGo) {
+        long slice = time / (movesToGo > 0 ? movesToGo + 1 : 30) + increment / 2;
+        return Math.max(1, Math.min(slice, time - 50));
+    }
+
+    //stop has to reach the search however early it comes, so it is repeated until the search thread is done
+    private void stopSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        stopSignal.countDown();
+        try {
+            while (searchThread.isAlive()) {
+                engine.stop();
+                searchThread.join(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    private static String info(SearchResult result) {
+        StringBuilder sb = new StringBuilder("info depth ").append(result.getDepth());
+        if (result.isMate()) {
+            int plies = Engine.MATE - Math.abs(result.getScore());
+            sb.append(" score mate ").append(result.getScore() > 0 ? (plies + 1) / 2 : -(plies + 1) / 2);
+        } else {
+            sb.append(" score cp ").append(result.getScore());
+        }
+        sb.append(" nodes ").append(result.getNodes())
+                .append(" nps ").append(result.getNodesPerSecond())
+                .append(" time ").append(result.getTimeMillis());
+        if (result.getPrincipalVariation().length > 0) {
+            sb.append(" pv");
+            for (int move : result.getPrincipalVariation()) {
+                sb.append(' ').append(Move.toString(move));
+            }
+        }
+        return sb.toString();
+    }
+
+    private synchronized void send(String line) {
+        out.println(line);
+        out.flush();
+    }
+
+    private static int indexOf(String[] tokens, String token) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].equals(token)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -2,19 +2,36 @@ package board;
 
 import board.exceptions.BoardException;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class Board {
 
+    //boards of the same size share one set of positions; they are handed out read-only
+    private static final Map<Integer, Position[]> POSITIONS = new ConcurrentHashMap<>();
+
     private int rows;
     private int columns;
-    private Piece[][] pieces;
+    private Piece[] pieces;
+    private Position[] positions;
+    private long occupied;
 
     public Board(int rows, int columns) {
         if (rows < 1 || columns < 1) {
             throw new BoardException("Error creating board: there must be at least 1 row and 1 column.");
         }
+        if (rows * columns > 64) {
+            throw new BoardException("Error creating board: there can be at most 64 squares.");
+        }
         this.rows = rows;
         this.columns = columns;
-        pieces = new Piece[rows][columns];
+        positions = POSITIONS.computeIfAbsent(rows << 16 | columns, key -> {
+            Position[] cache = new Position[rows * columns];
+            for (int i = 0; i < cache.length; i++) {
+                cache[i] = new Position(i / columns, i % columns);
+            }
+            return cache;
+        });
     }
 
     public int getRows() {
@@ -25,36 +42,76 @@ public class Board {
         return columns;
     }
 
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public int square(int row, int column) {
+        return row * columns + column;
+    }
+
+    public int square(Position p) {
+        return square(p.getRow(), p.getColumn());
+    }
+
+    public Position position(int square) {
+        return positions[square];
+    }
+
     public Piece piece(int row, int column) {
         if (!positionExists(row, column)) {
             throw new BoardException("There is not a piece on the given position.");
         }
-        return pieces[row][column];
+        return piece(square(row, column));
     }
 
     public Piece piece(Position p) {
         if (!positionExists(p)) {
             throw new BoardException("There is not a piece on the given position.");
         }
-        return pieces[p.getRow()][p.getColumn()];
+        return piece(square(p));
+    }
+
+    public Piece piece(int square) {
+        return pieces == null ? null : pieces[square];
     }
 
     public void placePiece(Piece piece, Position position) {
         if (thereIsAPiece(position)) {
             throw new BoardException("There is already a piece on position " + position + ".");
         }
-        pieces[position.getRow()][position.getColumn()] = piece;
-        piece.position = position;
+        placePiece(piece, square(position));
+    }
+
+    public void placePiece(Piece piece, int square) {
+        if (thereIsAPiece(square)) {
+            throw new BoardException("There is already a piece on position " + positions[square] + ".");
+        }
+        //allocated on first use, so subclasses that keep their own storage never pay for it
+        if (pieces == null) {
+            pieces = new Piece[rows * columns];
+        }
+        pieces[square] = piece;
+        occupied |= 1L << square;
+        attach(piece, square);
     }
 
     public Piece removePiece(Position position) {
-        if(!thereIsAPiece(position)) {
+        if (!thereIsAPiece(position)) {
+            return null;
+        }
+        return removePiece(square(position));
+    }
+
+    public Piece removePiece(int square) {
+        if (!thereIsAPiece(square)) {
             return null;
         }
 
-        Piece aux = piece(position);
-        aux.position = null;
-        pieces[position.getRow()][position.getColumn()] = null;
+        Piece aux = pieces[square];
+        detach(aux);
+        pieces[square] = null;
+        occupied &= ~(1L << square);
 
         return aux;
     }
@@ -63,7 +120,21 @@ public class Board {
         if (!positionExists(p)) {
             throw new BoardException("Position is not on the board.");
         }
-        return piece(p) != null;
+        return thereIsAPiece(square(p));
+    }
+
+    public boolean thereIsAPiece(int square) {
+        return (occupied & (1L << square)) != 0;
+    }
+
+    protected void attach(Piece piece, int square) {
+        piece.position = positions[square];
+        piece.square = square;
+    }
+
+    protected void detach(Piece piece) {
+        piece.position = null;
+        piece.square = -1;
     }
 
     public boolean positionExists(Position p) {
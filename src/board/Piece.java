@@ -3,6 +3,7 @@ package board;
 public abstract class Piece {
 
     protected Position position;
+    protected int square;
     private Board board;
 
     public Piece() {
@@ -12,6 +13,7 @@ public abstract class Piece {
     public Piece(Board board) {
         this.board = board;
         position = null;
+        square = -1;
     }
 
     protected Board getBoard() {
@@ -28,7 +30,7 @@ public abstract class Piece {
         boolean[][] possibleMovesMatrix = possibleMoves();
         for (int i = 0; i < possibleMovesMatrix.length; i++) {
             for (int j = 0; j < possibleMovesMatrix.length; j++) {
-                if (possibleMoves()[i][j]) {
+                if (possibleMovesMatrix[i][j]) {
                     return true;
                 }
             }
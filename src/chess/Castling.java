@@ -0,0 +1,51 @@
+package chess;
+
+import chess.enums.Color;
+
+import java.util.Arrays;
+
+public final class Castling {
+
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    //squares are row * 8 + column, so rank 8 is row 0
+    public static final int WHITE_KING = 60;
+    public static final int BLACK_KING = 4;
+
+    public static final int ALL = WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+
+    //rights that survive a move from or to each square: moving the king or a rook, or capturing a rook, loses them
+    private static final int[] RIGHTS_KEPT = new int[64];
+
+    static {
+        Arrays.fill(RIGHTS_KEPT, ALL);
+        RIGHTS_KEPT[WHITE_KING] = ALL & ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        RIGHTS_KEPT[WHITE_KING + 3] = ALL & ~WHITE_KING_SIDE;
+        RIGHTS_KEPT[WHITE_KING - 4] = ALL & ~WHITE_QUEEN_SIDE;
+        RIGHTS_KEPT[BLACK_KING] = ALL & ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        RIGHTS_KEPT[BLACK_KING + 3] = ALL & ~BLACK_KING_SIDE;
+        RIGHTS_KEPT[BLACK_KING - 4] = ALL & ~BLACK_QUEEN_SIDE;
+    }
+
+    private Castling() {
+    }
+
+    public static int update(int castlingRights, int source, int target) {
+        return castlingRights & RIGHTS_KEPT[source] & RIGHTS_KEPT[target];
+    }
+
+    public static int kingSide(Color color) {
+        return color == Color.WHITE ? WHITE_KING_SIDE : BLACK_KING_SIDE;
+    }
+
+    public static int queenSide(Color color) {
+        return color == Color.WHITE ? WHITE_QUEEN_SIDE : BLACK_QUEEN_SIDE;
+    }
+
+    public static int kingSquare(Color color) {
+        return color == Color.WHITE ? WHITE_KING : BLACK_KING;
+    }
+}
@@ -0,0 +1,204 @@
+package chess;
+
+import board.Board;
+import board.Piece;
+import board.exceptions.BoardException;
+import chess.enums.Color;
+import chess.enums.PieceType;
+import chess.pieces.*;
+
+public class ChessBoard extends Board {
+
+    private static final int PIECE_TYPES = PieceType.values().length;
+    private static final Color[] COLORS = Color.values();
+    private static final PieceType[] TYPES = PieceType.values();
+
+    //bitboard index + 1 of the piece on each square, 0 when empty; ChessPiece objects are only views built from it
+    private byte[] mailbox;
+    private long[] pieceBitboards;
+    private long[] colorBitboards;
+    private long zobristKey;
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+    //castling rights stand in for the king and rook move counters
+    private int castlingRights;
+
+    public ChessBoard() {
+        super(8, 8);
+        mailbox = new byte[64];
+        pieceBitboards = new long[COLORS.length * PIECE_TYPES];
+        colorBitboards = new long[COLORS.length];
+    }
+
+    public static int index(Color color, PieceType type) {
+        return color.ordinal() * PIECE_TYPES + type.ordinal();
+    }
+
+    public static Color color(int index) {
+        return COLORS[index / PIECE_TYPES];
+    }
+
+    public static PieceType type(int index) {
+        return TYPES[index % PIECE_TYPES];
+    }
+
+    public ChessPiece newPiece(Color color, PieceType type) {
+        return switch (type) {
+            case PAWN -> new Pawn(this, color);
+            case KNIGHT -> new Knight(this, color);
+            case BISHOP -> new Bishop(this, color);
+            case ROOK -> new Rook(this, color);
+            case QUEEN -> new Queen(this, color);
+            case KING -> new King(this, color);
+        };
+    }
+
+    //bitboard index of the piece on the square, -1 when it is empty
+    public int pieceIndex(int square) {
+        return mailbox[square] - 1;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights;
+    }
+
+    public long getBitboard(Color color, PieceType type) {
+        return pieceBitboards[index(color, type)];
+    }
+
+    long[] getPieceBitboards() {
+        return pieceBitboards;
+    }
+
+    public long getColorBitboard(Color color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    //placement part of the position key, kept up to date by placePiece and removePiece
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    //material plus piece-square values, white minus black, kept up to date like the zobrist key
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    public int getPhase() {
+        return Math.min(phase, PieceSquareTables.MAX_PHASE);
+    }
+
+    public int getKingSquare(Color color) {
+        long king = pieceBitboards[index(color, PieceType.KING)];
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    public boolean isSquareAttacked(int square, Color byColor) {
+        return isSquareAttacked(pieceBitboards, getOccupied(), square, byColor);
+    }
+
+    //looks outward from the square: a piece of byColor attacks it if the same piece standing on the square would attack it back
+    static boolean isSquareAttacked(long[] pieceBitboards, long occupied, int square, Color byColor) {
+        int offset = byColor.ordinal() * PIECE_TYPES;
+        Color defender = byColor == Color.WHITE ? Color.BLACK : Color.WHITE;
+        if ((Attacks.pawnAttacks(defender, square) & pieceBitboards[offset + PieceType.PAWN.ordinal()]) != 0) {
+            return true;
+        }
+        if ((Attacks.knightAttacks(square) & pieceBitboards[offset + PieceType.KNIGHT.ordinal()]) != 0) {
+            return true;
+        }
+        if ((Attacks.kingAttacks(square) & pieceBitboards[offset + PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+        long queens = pieceBitboards[offset + PieceType.QUEEN.ordinal()];
+        long bishops = pieceBitboards[offset + PieceType.BISHOP.ordinal()] | queens;
+        if ((bishops & Attacks.bishopAttacks(square, occupied)) != 0) {
+            return true;
+        }
+        long rooks = pieceBitboards[offset + PieceType.ROOK.ordinal()] | queens;
+        return (rooks & Attacks.rookAttacks(square, occupied)) != 0;
+    }
+
+    public boolean thereIsAPiece(int square, Color color) {
+        return (colorBitboards[color.ordinal()] & (1L << square)) != 0;
+    }
+
+    @Override
+    public long getOccupied() {
+        return colorBitboards[0] | colorBitboards[1];
+    }
+
+    @Override
+    public boolean thereIsAPiece(int square) {
+        return mailbox[square] != 0;
+    }
+
+    //a new view of the piece on the square, null when it is empty
+    @Override
+    public Piece piece(int square) {
+        int index = mailbox[square] - 1;
+        if (index < 0) {
+            return null;
+        }
+        ChessPiece piece = newPiece(color(index), type(index));
+        attach(piece, square);
+        return piece;
+    }
+
+    @Override
+    public void placePiece(Piece piece, int square) {
+        if (thereIsAPiece(square)) {
+            throw new BoardException("There is already a piece on position " + position(square) + ".");
+        }
+        ChessPiece chessPiece = (ChessPiece) piece;
+        putPiece(index(chessPiece.getColor(), chessPiece.getType()), square);
+        attach(piece, square);
+    }
+
+    @Override
+    public Piece removePiece(int square) {
+        Piece piece = piece(square);
+        if (piece != null) {
+            takePiece(square);
+            detach(piece);
+        }
+        return piece;
+    }
+
+    //placePiece and removePiece without piece objects, for making and undoing moves
+    public void putPiece(int index, int square) {
+        long bit = 1L << square;
+        mailbox[square] = (byte) (index + 1);
+        pieceBitboards[index] |= bit;
+        colorBitboards[index / PIECE_TYPES] |= bit;
+        zobristKey ^= Zobrist.piece(index, square);
+        middlegameScore += PieceSquareTables.middlegame(index, square);
+        endgameScore += PieceSquareTables.endgame(index, square);
+        phase += PieceSquareTables.phase(TYPES[index % PIECE_TYPES]);
+    }
+
+    //returns the bitboard index of the piece taken off, -1 when the square was empty
+    public int takePiece(int square) {
+        int index = mailbox[square] - 1;
+        if (index >= 0) {
+            long bit = 1L << square;
+            mailbox[square] = 0;
+            pieceBitboards[index] &= ~bit;
+            colorBitboards[index / PIECE_TYPES] &= ~bit;
+            zobristKey ^= Zobrist.piece(index, square);
+            middlegameScore -= PieceSquareTables.middlegame(index, square);
+            endgameScore -= PieceSquareTables.endgame(index, square);
+            phase -= PieceSquareTables.phase(TYPES[index % PIECE_TYPES]);
+        }
+        return index;
+    }
+}
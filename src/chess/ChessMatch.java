@@ -1,42 +1,59 @@
 package chess;
 
-import board.Board;
-import board.Piece;
 import board.Position;
 import chess.enums.Color;
+import chess.enums.PieceType;
 import chess.exceptions.ChessException;
 import chess.pieces.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ChessMatch {
 
-    private Board board;
+    //legal moves for validation are only needed during a call, so one list per thread serves every match
+    private static final ThreadLocal<MoveList> MOVES = ThreadLocal.withInitial(MoveList::new);
+
+    private ChessBoard board;
     private int turn;
     private Color currentPlayer;
-    private List<Piece> piecesOnTheBoard;
-    private List<Piece> capturedPieces;
     private boolean check;
     private boolean checkMate;
+    private boolean stalemate;
+    private int enPassantSquare;
+    private int halfmoveClock;
+
+    //one entry per move made, so undoMove can restore the previous position
+    //undo entry: bits 0-3 moved piece, 4-7 captured piece + 1, 8-14 en passant square + 1, 15-18 castling rights,
+    //19-34 halfmove clock, all from before the move
+    private int ply;
+    private int[] moveHistory;
+    private long[] undoHistory;
+    private long[] keyHistory;
+    private MatchListener listener;
 
     public ChessMatch() {
-        board = new Board(8, 8);
-        piecesOnTheBoard = new ArrayList<>();
-        capturedPieces = new ArrayList<>();
+        this(32);
+        initSetup();
+    }
+
+    private ChessMatch(int historySize) {
+        board = new ChessBoard();
+        moveHistory = new int[historySize];
+        undoHistory = new long[historySize];
+        keyHistory = new long[historySize];
         turn = 1;
         currentPlayer = Color.WHITE;
-        initSetup();
+        board.setCastlingRights(Castling.ALL);
+        enPassantSquare = -1;
     }
 
     public ChessPiece[][] getPieces() {
         ChessPiece[][] matrix = new ChessPiece[board.getRows()][board.getColumns()];
         for (int i = 0; i < board.getRows(); i++) {
             for (int j = 0; j < board.getColumns(); j++) {
-                matrix[i][j] = (ChessPiece) board.piece(i, j);
+                matrix[i][j] = (ChessPiece) board.piece(board.square(i, j));
             }
         }
 
@@ -59,121 +76,369 @@ public class ChessMatch {
         return checkMate;
     }
 
+    public boolean getStalemate() {
+        return stalemate;
+    }
+
+    //64-bit position key: placement, side to move, castling rights and a usable en passant square
+    public long getZobristKey() {
+        long key = board.getZobristKey() ^ Zobrist.sideToMove(currentPlayer) ^ Zobrist.castling(board.getCastlingRights());
+        if (enPassantSquare >= 0 && (Attacks.pawnAttacks(opponent(currentPlayer), enPassantSquare) & board.getBitboard(currentPlayer, PieceType.PAWN)) != 0) {
+            key ^= Zobrist.enPassant(enPassantSquare);
+        }
+        return key;
+    }
+
+    //plies since the last capture or pawn move
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return (turn + 1) / 2;
+    }
+
+    public int getCastlingRights() {
+        return board.getCastlingRights();
+    }
+
+    //one listener at most, told about every move made through performChessMove and taken back through undoChessMove;
+    //copies do not inherit it
+    public void setListener(MatchListener listener) {
+        this.listener = listener;
+    }
+
+    public int getPly() {
+        return ply;
+    }
+
+    public int getMove(int ply) {
+        return moveHistory[ply];
+    }
+
+    //0 before the first move
+    public int getLastMove() {
+        return ply == 0 ? 0 : moveHistory[ply - 1];
+    }
+
+    //the pieces captured so far, in capture order, read back from the undo history
+    public List<ChessPiece> getCapturedPieces() {
+        List<ChessPiece> captured = new ArrayList<>();
+        for (int i = 0; i < ply; i++) {
+            int index = (int) ((undoHistory[i] >>> 4) & 15) - 1;
+            if (index >= 0) {
+                captured.add(board.newPiece(ChessBoard.color(index), ChessBoard.type(index)));
+            }
+        }
+        return captured;
+    }
+
+    //an independent match on its own board, with the history copied too so moves made before the copy can be undone
+    public ChessMatch copy() {
+        ChessMatch copy = new ChessMatch(Math.max(moveHistory.length, 1));
+        long occupied = board.getOccupied();
+        while (occupied != 0) {
+            int square = Long.numberOfTrailingZeros(occupied);
+            copy.board.putPiece(board.pieceIndex(square), square);
+            occupied &= occupied - 1;
+        }
+        System.arraycopy(moveHistory, 0, copy.moveHistory, 0, ply);
+        System.arraycopy(undoHistory, 0, copy.undoHistory, 0, ply);
+        System.arraycopy(keyHistory, 0, copy.keyHistory, 0, ply);
+        copy.ply = ply;
+        copy.turn = turn;
+        copy.currentPlayer = currentPlayer;
+        copy.board.setCastlingRights(board.getCastlingRights());
+        copy.enPassantSquare = enPassantSquare;
+        copy.halfmoveClock = halfmoveClock;
+        copy.check = check;
+        copy.checkMate = checkMate;
+        copy.stalemate = stalemate;
+        return copy;
+    }
+
     private void nextTurn() {
         turn++;
         currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
     }
 
+    private void previousTurn() {
+        turn--;
+        currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
+    }
+
     private void placeNewPiece(char column, int row, ChessPiece piece) {
         board.placePiece(piece, new ChessPosition(column, row).toPosition());
-        piecesOnTheBoard.add(piece);
     }
 
-    private void validateSourcePosition(Position position) {
+    private void validateSourcePosition(Position position, MoveList moves) {
         if (!board.thereIsAPiece(position)) {
             throw new ChessException("There is no piece on the given position.");
         }
-        if (!board.piece(position).isThereAnyPossibleMove()) {
-            throw new ChessException("There is no possible moves for the chosen piece.");
-        }
-        ChessPiece chessPiece = (ChessPiece) board.piece(position);
-        if (chessPiece.getColor() != currentPlayer) {
+        if (!board.thereIsAPiece(board.square(position), currentPlayer)) {
             throw new ChessException("The chosen piece is not yours.");
         }
+        int source = board.square(position);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.source(moves.get(i)) == source) {
+                return;
+            }
+        }
+        throw new ChessException("There is no possible moves for the chosen piece.");
     }
 
-    private void validateTargetPosition(Position source, Position target) {
-        Piece sourcePositionPiece = board.piece(source);
-        if (!sourcePositionPiece.possibleMove(target)) {
+    private int validateTargetPosition(Position source, Position target, MoveList moves) {
+        int move = findLegalMove(board.square(source), board.square(target), moves);
+        if (move < 0) {
+            if (board.piece(source).possibleMove(target)) {
+                throw new ChessException("You can not put yourself in check.");
+            }
             throw new ChessException("The chosen piece can not be moved to target position.");
         }
+        return move;
+    }
+
+    //promotions are generated queen first, so a plain source/target pair promotes to a queen
+    private int findLegalMove(int source, int target, MoveList moves) {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.source(move) == source && Move.target(move) == target) {
+                return move;
+            }
+        }
+        return -1;
     }
 
-    private Piece makeMove(Position source, Position target) {
-        ChessPiece aux = (ChessPiece) board.removePiece(source);
-        aux.increaseMoveCount();
-        Piece captured = board.removePiece(target);
-        board.placePiece(aux, target);
+    public PositionSnapshot toSnapshot() {
+        return PositionSnapshot.of(board.getPieceBitboards(), currentPlayer, board.getCastlingRights(), enPassantSquare, halfmoveClock, getFullmoveNumber());
+    }
+
+    //a new match starting from the snapshot, without history before it
+    public static ChessMatch fromSnapshot(PositionSnapshot snapshot) {
+        ChessMatch match = new ChessMatch(32);
+        String illegality = snapshot.illegality();
+        if (illegality != null) {
+            throw new ChessException("Illegal position: " + illegality + ".");
+        }
+        long squares = snapshot.getOccupied();
+        while (squares != 0) {
+            int square = Long.numberOfTrailingZeros(squares);
+            match.board.putPiece(snapshot.pieceIndex(square), square);
+            squares &= squares - 1;
+        }
+        match.currentPlayer = snapshot.getSideToMove();
+        match.turn = Math.max(snapshot.getFullmoveNumber(), 1) * 2 - (match.currentPlayer == Color.WHITE ? 1 : 0);
+        match.board.setCastlingRights(snapshot.getCastlingRights());
+        match.enPassantSquare = snapshot.getEnPassantSquare();
+        match.halfmoveClock = snapshot.getHalfmoveClock();
+        match.updateStatus(MOVES.get());
+        return match;
+    }
+
+    public static ChessMatch fromFen(CharSequence fen) {
+        return fromSnapshot(Fen.parse(fen));
+    }
 
-        if (captured != null) {
-            piecesOnTheBoard.remove(captured);
-            capturedPieces.add(captured);
+    public String toFen() {
+        return Fen.toFen(toSnapshot());
+    }
+
+    public void generateLegalMoves(MoveList moves) {
+        MoveGenerator.generateLegalMoves(board, currentPlayer, board.getCastlingRights(), enPassantSquare, moves);
+    }
+
+    public void makeMove(int move) {
+        long key = getZobristKey();
+        int source = Move.source(move);
+        int target = Move.target(move);
+        int type = Move.type(move);
+
+        if (ply == moveHistory.length) {
+            moveHistory = Arrays.copyOf(moveHistory, ply * 2);
+            undoHistory = Arrays.copyOf(undoHistory, ply * 2);
+            keyHistory = Arrays.copyOf(keyHistory, ply * 2);
+        }
+
+        int moved = board.takePiece(source);
+        //the en passant victim stands beside the source, on the target column
+        int captured = board.takePiece(type == Move.EN_PASSANT ? source - source % 8 + target % 8 : target);
+        if (type == Move.PROMOTION) {
+            board.putPiece(ChessBoard.index(ChessBoard.color(moved), Move.promotionType(move)), target);
+        } else {
+            board.putPiece(moved, target);
         }
 
         //special move castling (king side rook)
-        if(aux instanceof King && target.getColumn() == source.getColumn() + 2) {
-            Position sourceRook = new Position(source.getRow(), source.getColumn() + 3);
-            Position targetRook =  new Position(source.getRow(), source.getColumn() + 1);
-            ChessPiece rook = (ChessPiece) board.removePiece(sourceRook);
-            board.placePiece(rook, targetRook);
-            rook.increaseMoveCount();
+        if (type == Move.CASTLING && target == source + 2) {
+            board.putPiece(board.takePiece(source + 3), source + 1);
         }
 
         //special move castling (queen side rook)
-        if(aux instanceof King && target.getColumn() == source.getColumn() - 2) {
-            Position sourceRook = new Position(source.getRow(), source.getColumn() - 4);
-            Position targetRook = new Position(source.getRow(), source.getColumn() - 1);
-            ChessPiece rook = (ChessPiece) board.removePiece(sourceRook);
-            board.placePiece(rook, targetRook);
-            rook.increaseMoveCount();
+        if (type == Move.CASTLING && target == source - 2) {
+            board.putPiece(board.takePiece(source - 4), source - 1);
         }
-        return captured;
+
+        moveHistory[ply] = move;
+        undoHistory[ply] = moved
+                | (long) (captured + 1) << 4
+                | (long) (enPassantSquare + 1) << 8
+                | (long) board.getCastlingRights() << 15
+                | (long) (halfmoveClock & 0xFFFF) << 19;
+        keyHistory[ply] = key;
+        ply++;
+
+        boolean pawnMove = ChessBoard.type(moved) == PieceType.PAWN;
+        halfmoveClock = captured >= 0 || pawnMove ? 0 : halfmoveClock + 1;
+        board.setCastlingRights(Castling.update(board.getCastlingRights(), source, target));
+
+        //a double pawn step leaves the skipped square open to en passant for one move
+        enPassantSquare = pawnMove && Math.abs(target - source) == 16 ? (source + target) / 2 : -1;
+        nextTurn();
     }
 
-    private void undoMove(Position source, Position target, Piece capturedPiece) {
-        ChessPiece aux = (ChessPiece) board.removePiece(target);
-        aux.decreaseMoveCount();
-        board.placePiece(aux, source);
-        if (capturedPiece != null) {
-            board.placePiece(capturedPiece, target);
-            capturedPieces.remove(capturedPiece);
-            piecesOnTheBoard.add(capturedPiece);
+    public void undoMove() {
+        ply--;
+        int move = moveHistory[ply];
+        int source = Move.source(move);
+        int target = Move.target(move);
+        int type = Move.type(move);
+        long undo = undoHistory[ply];
+        int moved = (int) (undo & 15);
+        int captured = (int) ((undo >>> 4) & 15) - 1;
+        enPassantSquare = (int) ((undo >>> 8) & 127) - 1;
+        board.setCastlingRights((int) ((undo >>> 15) & 15));
+        halfmoveClock = (int) ((undo >>> 19) & 0xFFFF);
+        previousTurn();
+
+        board.takePiece(target);
+        board.putPiece(moved, source);
+        if (captured >= 0) {
+            board.putPiece(captured, type == Move.EN_PASSANT ? source - source % 8 + target % 8 : target);
         }
 
         //special move castling (king side rook)
-        if(aux instanceof King && target.getColumn() == source.getColumn() + 2) {
-            Position sourceRook = new Position(source.getRow(), source.getColumn() + 3);
-            Position targetRook =  new Position(source.getRow(), source.getColumn() + 1);
-            ChessPiece rook = (ChessPiece) board.removePiece(targetRook);
-            board.placePiece(rook, sourceRook);
-            rook.decreaseMoveCount();
+        if (type == Move.CASTLING && target == source + 2) {
+            board.putPiece(board.takePiece(source + 1), source + 3);
         }
 
         //special move castling (queen side rook)
-        if(aux instanceof King && target.getColumn() == source.getColumn() - 2) {
-            Position sourceRook = new Position(source.getRow(), source.getColumn() - 4);
-            Position targetRook = new Position(source.getRow(), source.getColumn() - 1);
-            ChessPiece rook = (ChessPiece) board.removePiece(targetRook);
-            board.placePiece(rook, sourceRook);
-            rook.decreaseMoveCount();
+        if (type == Move.CASTLING && target == source - 2) {
+            board.putPiece(board.takePiece(source - 1), source - 4);
         }
     }
 
     public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
         Position source = sourcePosition.toPosition();
         Position target = targetPosition.toPosition();
-        validateSourcePosition(source);
-        validateTargetPosition(source, target);
-        Piece capturedPiece = makeMove(source, target);
-        if (testCheck(currentPlayer)) {
-            undoMove(source, target, capturedPiece);
-            throw new ChessException("You can not put yourself in check.");
+        MoveList moves = MOVES.get();
+        generateLegalMoves(moves);
+        validateSourcePosition(source, moves);
+        return performLegalMove(validateTargetPosition(source, target, moves), moves);
+    }
+
+    public ChessPiece performChessMove(int move) {
+        MoveList moves = MOVES.get();
+        generateLegalMoves(moves);
+        if (!moves.contains(move)) {
+            throw new ChessException("The move " + Move.toString(move) + " is not legal in this position.");
         }
-        check = testCheck(opponent(currentPlayer));
+        return performLegalMove(move, moves);
+    }
 
-        if (testCheckMate(opponent(currentPlayer))) {
-            checkMate = true;
-        } else {
-            nextTurn();
+    //the captured piece comes back as a view that is no longer on the board
+    private ChessPiece performLegalMove(int move, MoveList moves) {
+        if (listener != null) {
+            listener.beforeMove(this, move);
+        }
+        makeMove(move);
+        updateStatus(moves);
+        if (listener != null) {
+            listener.afterMove(this, move);
+        }
+        int captured = (int) ((undoHistory[ply - 1] >>> 4) & 15) - 1;
+        return captured < 0 ? null : board.newPiece(ChessBoard.color(captured), ChessBoard.type(captured));
+    }
+
+    //takes back a performChessMove, check and mate flags included; undoMove leaves those to the caller
+    public void undoChessMove() {
+        if (ply == 0) {
+            throw new ChessException("There is no move to take back.");
+        }
+        if (listener != null) {
+            listener.beforeUndo(this, moveHistory[ply - 1]);
+        }
+        undoMove();
+        updateStatus(MOVES.get());
+    }
+
+    //the legal moves of the side to move decide mate and stalemate
+    private void updateStatus(MoveList moves) {
+        check = testCheck(currentPlayer);
+        generateLegalMoves(moves);
+        checkMate = moves.isEmpty() && check;
+        stalemate = moves.isEmpty() && !check;
+    }
+
+    public boolean isInCheck() {
+        return testCheck(currentPlayer);
+    }
+
+    public boolean isCapture(int move) {
+        return Move.type(move) == Move.EN_PASSANT || board.thereIsAPiece(Move.target(move), opponent(currentPlayer));
+    }
+
+    //true when the current position already occurred since the last capture or pawn move
+    public boolean isRepetition() {
+        long key = getZobristKey();
+        int first = Math.max(0, ply - halfmoveClock);
+        for (int i = ply - 2; i >= first; i -= 2) {
+            if (keyHistory[i] == key) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    public int getMiddlegameScore() {
+        return board.getMiddlegameScore();
+    }
+
+    public int getEndgameScore() {
+        return board.getEndgameScore();
+    }
+
+    public int getPhase() {
+        return board.getPhase();
+    }
+
+    //type of the piece on the square, null when it is empty
+    public PieceType getPieceType(int square) {
+        int index = board.pieceIndex(square);
+        return index < 0 ? null : ChessBoard.type(index);
+    }
+
+    public long getBitboard(Color color, PieceType type) {
+        return board.getBitboard(color, type);
+    }
 
-        return (ChessPiece) capturedPiece;
+    public boolean isSquareAttacked(ChessPosition position, Color byColor) {
+        return board.isSquareAttacked(board.square(position.toPosition()), byColor);
     }
 
     public boolean[][] possibleMoves(ChessPosition sourcePosition) {
         Position p = sourcePosition.toPosition();
-        validateSourcePosition(p);
-        return board.piece(p).possibleMoves();
+        MoveList moves = MOVES.get();
+        generateLegalMoves(moves);
+        validateSourcePosition(p, moves);
+        int source = board.square(p);
+        boolean[][] matrix = new boolean[board.getRows()][board.getColumns()];
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.source(moves.get(i)) == source) {
+                Position target = board.position(Move.target(moves.get(i)));
+                matrix[target.getRow()][target.getColumn()] = true;
+            }
+        }
+        return matrix;
     }
 
     private void initSetup() {
@@ -181,7 +446,7 @@ public class ChessMatch {
         placeNewPiece('b', 1, new Knight(board, Color.WHITE));
         placeNewPiece('c', 1, new Bishop(board, Color.WHITE));
         placeNewPiece('d', 1, new Queen(board, Color.WHITE));
-        placeNewPiece('e', 1, new King(board, Color.WHITE, this));
+        placeNewPiece('e', 1, new King(board, Color.WHITE));
         placeNewPiece('f', 1, new Bishop(board, Color.WHITE));
         placeNewPiece('g', 1, new Knight(board, Color.WHITE));
         placeNewPiece('h', 1, new Rook(board, Color.WHITE));
@@ -198,7 +463,7 @@ public class ChessMatch {
         placeNewPiece('b', 8, new Knight(board, Color.BLACK));
         placeNewPiece('c', 8, new Bishop(board, Color.BLACK));
         placeNewPiece('d', 8, new Queen(board, Color.BLACK));
-        placeNewPiece('e', 8, new King(board, Color.BLACK, this));
+        placeNewPiece('e', 8, new King(board, Color.BLACK));
         placeNewPiece('f', 8, new Bishop(board, Color.BLACK));
         placeNewPiece('g', 8, new Knight(board, Color.BLACK));
         placeNewPiece('h', 8, new Rook(board, Color.BLACK));
@@ -216,55 +481,9 @@ public class ChessMatch {
         return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
     }
 
-    private ChessPiece king(Color color) {
-        List<Piece> piecesFilteredByColor = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color).toList();
-
-        for (Piece p : piecesFilteredByColor) {
-            if (p instanceof King) {
-                return (ChessPiece) p;
-            }
-        }
-        throw new IllegalStateException("There is no " + color.toString().toLowerCase() + "king on the board");
-    }
-
+    //a few probes outward from the king square; no attack maps are kept, since keeping them current would cost every
+    //move more than this costs a check test
     private boolean testCheck(Color color) {
-        Position kingPosition = king(color).getChessPosition().toPosition();
-        List<Piece> oppPieces = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == opponent(color)).toList();
-
-        for (Piece p : oppPieces) {
-            boolean[][] possibleMoves = p.possibleMoves();
-            if (possibleMoves[kingPosition.getRow()][kingPosition.getColumn()]) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    private boolean testCheckMate(Color color) {
-        if (!testCheck(color)) {
-            return false;
-        }
-
-        List<Piece> piecesFilteredByColor = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color).toList();
-        for (Piece p : piecesFilteredByColor) {
-            boolean[][] possibleMoves = p.possibleMoves();
-            for (int i = 0; i < board.getRows(); i++) {
-                for (int j = 0; j < board.getColumns(); j++) {
-                    if (possibleMoves[i][j]) {
-                        Position source = ((ChessPiece) p).getChessPosition().toPosition();
-                        Position target = new Position(i, j);
-                        Piece captured = makeMove(source, target);
-                        undoMove(source, target, captured);
-
-                        if (!testCheck(color)) {
-                            return false;
-                        }
-                    }
-                }
-            }
-        }
-
-        return true;
+        return board.isSquareAttacked(board.getKingSquare(color), opponent(color));
     }
 }
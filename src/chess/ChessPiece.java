@@ -2,17 +2,17 @@ package chess;
 
 import board.Board;
 import board.Piece;
-import board.Position;import chess.enums.Color;
+import board.Position;
+import chess.enums.Color;
+import chess.enums.PieceType;
 
 public abstract class ChessPiece extends Piece {
 
     private Color color;
-    private int moveCount;
 
     public ChessPiece(Board board, Color color) {
         super(board);
         this.color = color;
-        moveCount = 0;
     }
 
     public ChessPosition getChessPosition() {
@@ -23,21 +23,58 @@ public abstract class ChessPiece extends Piece {
         return color;
     }
 
+    //no counter is kept: 1 once the piece is known to have moved, 0 otherwise
     public int getMoveCount() {
-        return moveCount;
+        return hasMoved() ? 1 : 0;
     }
 
-    protected boolean isThereOpponentPiece(Position position) {
-        ChessPiece aux = (ChessPiece) getBoard().piece(position);
+    //a pawn off its start row, or a king or rook whose castling rights are gone, has moved
+    public boolean hasMoved() {
+        if (square < 0) {
+            return false;
+        }
+        int rights = getChessBoard().getCastlingRights();
+        int king = Castling.kingSquare(color);
+        return switch (getType()) {
+            case PAWN -> square / 8 != (color == Color.WHITE ? 6 : 1);
+            case KING -> square != king || (rights & (Castling.kingSide(color) | Castling.queenSide(color))) == 0;
+            case ROOK -> !(square == king + 3 && (rights & Castling.kingSide(color)) != 0)
+                    && !(square == king - 4 && (rights & Castling.queenSide(color)) != 0);
+            default -> false;
+        };
+    }
+
+    public abstract PieceType getType();
 
-        return aux != null && color != aux.getColor();
+    public abstract long possibleMovesBitboard();
+
+    @Override
+    public boolean[][] possibleMoves() {
+        boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
+        long moves = possibleMovesBitboard();
+        while (moves != 0) {
+            int target = Long.numberOfTrailingZeros(moves);
+            matrix[target / getBoard().getColumns()][target % getBoard().getColumns()] = true;
+            moves &= moves - 1;
+        }
+        return matrix;
     }
 
-    protected void increaseMoveCount() {
-        moveCount++;
+    @Override
+    public boolean possibleMove(Position position) {
+        return (possibleMovesBitboard() & (1L << getBoard().square(position))) != 0;
     }
 
-    protected void decreaseMoveCount() {
-        moveCount--;
+    @Override
+    public boolean isThereAnyPossibleMove() {
+        return possibleMovesBitboard() != 0;
+    }
+
+    protected ChessBoard getChessBoard() {
+        return (ChessBoard) getBoard();
+    }
+
+    protected boolean isThereOpponentPiece(Position position) {
+        return getChessBoard().thereIsAPiece(getBoard().square(position), color == Color.WHITE ? Color.BLACK : Color.WHITE);
     }
 }
@@ -0,0 +1,248 @@
+package chess;
+
+import chess.enums.Color;
+import chess.exceptions.ChessException;
+
+import java.util.Arrays;
+
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    //indexed like ChessBoard.index: black pieces first, then white
+    private static final String PIECE_LETTERS = "pnbrqkPNBRQK";
+    private static final byte[] PIECE_INDEX = new byte[128];
+
+    static {
+        Arrays.fill(PIECE_INDEX, (byte) -1);
+        for (int i = 0; i < PIECE_LETTERS.length(); i++) {
+            PIECE_INDEX[PIECE_LETTERS.charAt(i)] = (byte) i;
+        }
+    }
+
+    private Fen() {
+    }
+
+    //reads the characters in place: pieces go straight into the snapshot nibbles, since FEN lists squares in the same order
+    public static PositionSnapshot parse(CharSequence fen) {
+        int length = fen.length();
+        int i = skipSpaces(fen, 0);
+        long occupied = 0L;
+        long low = 0L;
+        long high = 0L;
+        int pieces = 0;
+        int square = 0;
+        int column = 0;
+        while (square < 64) {
+            if (i >= length) {
+                throw invalid(fen, "the piece placement is incomplete");
+            }
+            char c = fen.charAt(i++);
+            if (c == '/') {
+                if (column != 8) {
+                    throw invalid(fen, "a rank does not have 8 squares");
+                }
+                column = 0;
+            } else if (c >= '1' && c <= '8') {
+                column += c - '0';
+                square += c - '0';
+                if (column > 8) {
+                    throw invalid(fen, "a rank does not have 8 squares");
+                }
+            } else {
+                int index = c < 128 ? PIECE_INDEX[c] : -1;
+                if (index < 0) {
+                    throw invalid(fen, "unexpected character '" + c + "' in the piece placement");
+                }
+                if (column == 8) {
+                    throw invalid(fen, "a rank does not have 8 squares");
+                }
+                if (pieces == 32) {
+                    throw invalid(fen, "there are more than 32 pieces");
+                }
+                occupied |= 1L << square;
+                if (pieces < 16) {
+                    low |= (long) index << (pieces * 4);
+                } else {
+                    high |= (long) index << ((pieces - 16) * 4);
+                }
+                pieces++;
+                column++;
+                square++;
+            }
+        }
+
+        i = expectSpace(fen, i);
+        if (i >= length || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b')) {
+            throw invalid(fen, "the side to move must be 'w' or 'b'");
+        }
+        Color side = fen.charAt(i++) == 'w' ? Color.WHITE : Color.BLACK;
+
+        i = expectSpace(fen, i);
+        int castlingRights = 0;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            while (i < length && fen.charAt(i) != ' ') {
+                castlingRights |= switch (fen.charAt(i++)) {
+                    case 'K' -> Castling.WHITE_KING_SIDE;
+                    case 'Q' -> Castling.WHITE_QUEEN_SIDE;
+                    case 'k' -> Castling.BLACK_KING_SIDE;
+                    case 'q' -> Castling.BLACK_QUEEN_SIDE;
+                    default -> throw invalid(fen, "unexpected character in the castling rights");
+                };
+            }
+        }
+
+        i = expectSpace(fen, i);
+        int enPassantSquare = -1;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            if (i + 1 >= length) {
+                throw invalid(fen, "the en passant square is incomplete");
+            }
+            char file = fen.charAt(i++);
+            char rank = fen.charAt(i++);
+            char expected = side == Color.WHITE ? '6' : '3';
+            if (file < 'a' || file > 'h' || rank != expected) {
+                throw invalid(fen, "the en passant square must be on rank " + expected + " with "
+                        + (side == Color.WHITE ? "white" : "black") + " to move");
+            }
+            enPassantSquare = (8 - (rank - '0')) * 8 + (file - 'a');
+        }
+
+        //the clocks are optional, as in EPD
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            halfmoveClock = readNumber(fen, i);
+            i = skipSpaces(fen, skipDigits(fen, i));
+            if (i < length) {
+                fullmoveNumber = readNumber(fen, i);
+                //PositionSnapshot keeps 16 bits of it
+                if (fullmoveNumber > 0xFFFF) {
+                    throw invalid(fen, "the fullmove number must not be above 65535");
+                }
+                i = skipSpaces(fen, skipDigits(fen, i));
+            }
+        }
+        if (i < length) {
+            throw invalid(fen, "unexpected text after the fullmove number");
+        }
+
+        PositionSnapshot snapshot = new PositionSnapshot(occupied, low, high,
+                PositionSnapshot.state(side, castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber));
+        if (enPassantSquare >= 0 && !isDoubleStep(snapshot, side, enPassantSquare)) {
+            throw invalid(fen, "no pawn can have just passed the en passant square");
+        }
+        String illegality = snapshot.illegality();
+        if (illegality != null) {
+            throw invalid(fen, illegality);
+        }
+        return snapshot;
+    }
+
+    //the opponent's pawn stands in front of the square, and the square and the one it came from are empty
+    private static boolean isDoubleStep(PositionSnapshot snapshot, Color side, int enPassantSquare) {
+        int forward = side == Color.WHITE ? 8 : -8;
+        int pawn = side == Color.WHITE ? PIECE_LETTERS.indexOf('p') : PIECE_LETTERS.indexOf('P');
+        return snapshot.pieceIndex(enPassantSquare + forward) == pawn
+                && snapshot.pieceIndex(enPassantSquare) < 0
+                && snapshot.pieceIndex(enPassantSquare - forward) < 0;
+    }
+
+    public static String toFen(PositionSnapshot snapshot) {
+        return write(snapshot, new StringBuilder(90)).toString();
+    }
+
+    public static StringBuilder write(PositionSnapshot snapshot, StringBuilder sb) {
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int column = 0; column < 8; column++) {
+                int index = snapshot.pieceIndex(row * 8 + column);
+                if (index < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                sb.append(PIECE_LETTERS.charAt(index));
+            }
+            if (empty > 0) {
+                sb.append((char) ('0' + empty));
+            }
+            if (row < 7) {
+                sb.append('/');
+            }
+        }
+
+        sb.append(snapshot.getSideToMove() == Color.WHITE ? " w " : " b ");
+        int rights = snapshot.getCastlingRights();
+        if (rights == 0) {
+            sb.append('-');
+        } else {
+            if ((rights & Castling.WHITE_KING_SIDE) != 0) {
+                sb.append('K');
+            }
+            if ((rights & Castling.WHITE_QUEEN_SIDE) != 0) {
+                sb.append('Q');
+            }
+            if ((rights & Castling.BLACK_KING_SIDE) != 0) {
+                sb.append('k');
+            }
+            if ((rights & Castling.BLACK_QUEEN_SIDE) != 0) {
+                sb.append('q');
+            }
+        }
+        sb.append(' ');
+        int enPassantSquare = snapshot.getEnPassantSquare();
+        if (enPassantSquare < 0) {
+            sb.append('-');
+        } else {
+            sb.append((char) ('a' + enPassantSquare % 8)).append((char) ('0' + 8 - enPassantSquare / 8));
+        }
+        return sb.append(' ').append(snapshot.getHalfmoveClock()).append(' ').append(snapshot.getFullmoveNumber());
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int expectSpace(CharSequence fen, int i) {
+        if (i >= fen.length() || fen.charAt(i) != ' ') {
+            throw invalid(fen, "fields must be separated by spaces");
+        }
+        return skipSpaces(fen, i);
+    }
+
+    private static int skipDigits(CharSequence fen, int i) {
+        while (i < fen.length() && fen.charAt(i) >= '0' && fen.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int readNumber(CharSequence fen, int i) {
+        int value = 0;
+        int end = skipDigits(fen, i);
+        if (end == i || end - i > 6) {
+            throw invalid(fen, "the clocks must be numbers");
+        }
+        for (; i < end; i++) {
+            value = value * 10 + (fen.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    //the message is only built when the input is bad
+    private static ChessException invalid(CharSequence fen, String reason) {
+        return new ChessException("Invalid FEN \"" + fen + "\": " + reason + ".");
+    }
+}
@@ -0,0 +1,19 @@
+package chess;
+
+//hooks into the moves made and taken back through performChessMove and undoChessMove, on the thread that calls them;
+//makeMove and undoMove, which the search uses, are not seen; a hook that throws stops the move or the take-back
+//if it runs before it, and leaves it done if it runs after
+public interface MatchListener {
+
+    //called by performChessMove once the move is known to be legal, before it is made
+    default void beforeMove(ChessMatch match, int move) {
+    }
+
+    //called by performChessMove after the move is made and check and mate are updated
+    default void afterMove(ChessMatch match, int move) {
+    }
+
+    //called by undoChessMove before it takes the move back
+    default void beforeUndo(ChessMatch match, int move) {
+    }
+}
@@ -0,0 +1,69 @@
+package chess;
+
+import chess.enums.PieceType;
+
+public final class Move {
+
+    //bits 0-5 source square, bits 6-11 target square, bits 12-13 move type, bits 14-15 promotion piece
+    public static final int NORMAL = 0;
+    public static final int PROMOTION = 1 << 12;
+    public static final int EN_PASSANT = 2 << 12;
+    public static final int CASTLING = 3 << 12;
+
+    private static final int TYPE_MASK = 3 << 12;
+    private static final PieceType[] PROMOTION_TYPES = {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    private Move() {
+    }
+
+    public static int of(int source, int target) {
+        return source | (target << 6);
+    }
+
+    public static int of(int source, int target, int type) {
+        return source | (target << 6) | type;
+    }
+
+    public static int promotion(int source, int target, PieceType promotion) {
+        return source | (target << 6) | PROMOTION | ((promotion.ordinal() - PieceType.KNIGHT.ordinal()) << 14);
+    }
+
+    public static int source(int move) {
+        return move & 63;
+    }
+
+    public static int target(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int type(int move) {
+        return move & TYPE_MASK;
+    }
+
+    public static PieceType promotionType(int move) {
+        return PROMOTION_TYPES[(move >>> 14) & 3];
+    }
+
+    public static String toString(int move) {
+        String s = squareName(source(move)) + squareName(target(move));
+        if (type(move) == PROMOTION) {
+            s += Character.toLowerCase(pieceLetter(promotionType(move)));
+        }
+        return s;
+    }
+
+    public static String squareName(int square) {
+        return "" + (char) ('a' + square % 8) + (8 - square / 8);
+    }
+
+    public static char pieceLetter(PieceType type) {
+        return switch (type) {
+            case PAWN -> 'P';
+            case KNIGHT -> 'N';
+            case BISHOP -> 'B';
+            case ROOK -> 'R';
+            case QUEEN -> 'Q';
+            case KING -> 'K';
+        };
+    }
+}
@@ -0,0 +1,189 @@
+package chess;
+
+import chess.enums.Color;
+import chess.enums.PieceType;
+
+public final class MoveGenerator {
+
+    private static final int PIECE_TYPES = PieceType.values().length;
+    private static final long LAST_ROWS = 0xFF000000000000FFL;
+
+    private MoveGenerator() {
+    }
+
+    public static void generateLegalMoves(ChessBoard board, Color side, int castlingRights, int enPassantSquare, MoveList moves) {
+        generateLegalMoves(board.getPieceBitboards(), side, castlingRights, enPassantSquare, moves);
+    }
+
+    //emits only legal moves: checkers and pinned pieces are found once, so no move has to be made and undone
+    public static void generateLegalMoves(long[] pieceBitboards, Color side, int castlingRights, int enPassantSquare, MoveList moves) {
+        moves.clear();
+        Color them = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+        int us = side.ordinal() * PIECE_TYPES;
+        int enemy = them.ordinal() * PIECE_TYPES;
+
+        long own = 0L;
+        long opponent = 0L;
+        for (int i = 0; i < PIECE_TYPES; i++) {
+            own |= pieceBitboards[us + i];
+            opponent |= pieceBitboards[enemy + i];
+        }
+        long occupied = own | opponent;
+
+        long kingBitboard = pieceBitboards[us + PieceType.KING.ordinal()];
+        if (kingBitboard == 0) {
+            return;
+        }
+        int king = Long.numberOfTrailingZeros(kingBitboard);
+
+        long enemyQueens = pieceBitboards[enemy + PieceType.QUEEN.ordinal()];
+        long enemyDiagonals = pieceBitboards[enemy + PieceType.BISHOP.ordinal()] | enemyQueens;
+        long enemyLines = pieceBitboards[enemy + PieceType.ROOK.ordinal()] | enemyQueens;
+
+        long checkers = (Attacks.pawnAttacks(side, king) & pieceBitboards[enemy + PieceType.PAWN.ordinal()])
+                | (Attacks.knightAttacks(king) & pieceBitboards[enemy + PieceType.KNIGHT.ordinal()])
+                | (Attacks.bishopAttacks(king, occupied) & enemyDiagonals)
+                | (Attacks.rookAttacks(king, occupied) & enemyLines);
+
+        //enemy sliders that would see the king on an empty board pin the single piece of ours between them
+        long pinned = 0L;
+        long snipers = (Attacks.bishopAttacks(king, 0L) & enemyDiagonals) | (Attacks.rookAttacks(king, 0L) & enemyLines);
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            long blockers = Attacks.between(king, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+            snipers &= snipers - 1;
+        }
+
+        //king moves, tested with the king off the board so it can not hide behind itself from a slider
+        long kingTargets = Attacks.kingAttacks(king) & ~own;
+        long withoutKing = occupied ^ kingBitboard;
+        while (kingTargets != 0) {
+            int target = Long.numberOfTrailingZeros(kingTargets);
+            if (!ChessBoard.isSquareAttacked(pieceBitboards, withoutKing, target, them)) {
+                moves.add(Move.of(king, target));
+            }
+            kingTargets &= kingTargets - 1;
+        }
+
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+
+        //with one checker every other move has to capture it or block its ray
+        long checkMask = checkers == 0 ? -1L : checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        long targetMask = ~own & checkMask;
+
+        long pieces = pieceBitboards[us + PieceType.KNIGHT.ordinal()] & ~pinned;
+        while (pieces != 0) {
+            int source = Long.numberOfTrailingZeros(pieces);
+            addMoves(moves, source, Attacks.knightAttacks(source) & targetMask);
+            pieces &= pieces - 1;
+        }
+
+        pieces = pieceBitboards[us + PieceType.BISHOP.ordinal()] | pieceBitboards[us + PieceType.QUEEN.ordinal()];
+        while (pieces != 0) {
+            int source = Long.numberOfTrailingZeros(pieces);
+            addMoves(moves, source, Attacks.bishopAttacks(source, occupied) & targetMask & pinRay(pinned, king, source));
+            pieces &= pieces - 1;
+        }
+
+        pieces = pieceBitboards[us + PieceType.ROOK.ordinal()] | pieceBitboards[us + PieceType.QUEEN.ordinal()];
+        while (pieces != 0) {
+            int source = Long.numberOfTrailingZeros(pieces);
+            addMoves(moves, source, Attacks.rookAttacks(source, occupied) & targetMask & pinRay(pinned, king, source));
+            pieces &= pieces - 1;
+        }
+
+        //white pawns move towards row 0, black pawns towards row 7
+        int forward = side == Color.WHITE ? -8 : 8;
+        long startRow = side == Color.WHITE ? 0x00FF000000000000L : 0x000000000000FF00L;
+        pieces = pieceBitboards[us + PieceType.PAWN.ordinal()];
+        while (pieces != 0) {
+            int source = Long.numberOfTrailingZeros(pieces);
+            long allowed = checkMask & pinRay(pinned, king, source);
+            long targets = Attacks.pawnAttacks(side, source) & opponent;
+            int oneStep = source + forward;
+            if (oneStep >= 0 && oneStep < 64 && (occupied & (1L << oneStep)) == 0) {
+                targets |= 1L << oneStep;
+                int twoSteps = oneStep + forward;
+                if ((startRow & (1L << source)) != 0 && (occupied & (1L << twoSteps)) == 0) {
+                    targets |= 1L << twoSteps;
+                }
+            }
+            targets &= allowed;
+            if ((targets & LAST_ROWS) != 0) {
+                addPromotions(moves, source, targets);
+            } else {
+                addMoves(moves, source, targets);
+            }
+            if (enPassantSquare >= 0 && (Attacks.pawnAttacks(side, source) & (1L << enPassantSquare)) != 0) {
+                addEnPassant(pieceBitboards, side, source, enPassantSquare - forward, enPassantSquare, king, occupied, moves);
+            }
+            pieces &= pieces - 1;
+        }
+
+        if (checkers == 0) {
+            generateCastling(pieceBitboards, side, them, king, occupied, castlingRights, moves);
+        }
+    }
+
+    private static void generateCastling(long[] pieceBitboards, Color side, Color them, int king, long occupied, int castlingRights, MoveList moves) {
+        if (king != Castling.kingSquare(side)) {
+            return;
+        }
+        long rooks = pieceBitboards[side.ordinal() * PIECE_TYPES + PieceType.ROOK.ordinal()];
+
+        if ((castlingRights & Castling.kingSide(side)) != 0 && (rooks & (1L << (king + 3))) != 0
+                && (occupied & Attacks.between(king, king + 3)) == 0
+                && !ChessBoard.isSquareAttacked(pieceBitboards, occupied, king + 1, them)
+                && !ChessBoard.isSquareAttacked(pieceBitboards, occupied, king + 2, them)) {
+            moves.add(Move.of(king, king + 2, Move.CASTLING));
+        }
+
+        if ((castlingRights & Castling.queenSide(side)) != 0 && (rooks & (1L << (king - 4))) != 0
+                && (occupied & Attacks.between(king, king - 4)) == 0
+                && !ChessBoard.isSquareAttacked(pieceBitboards, occupied, king - 1, them)
+                && !ChessBoard.isSquareAttacked(pieceBitboards, occupied, king - 2, them)) {
+            moves.add(Move.of(king, king - 2, Move.CASTLING));
+        }
+    }
+
+    //en passant removes two pieces from one row, so its legality is tested on the resulting occupancy
+    private static void addEnPassant(long[] pieceBitboards, Color side, int source, int captured, int target, int king, long occupied, MoveList moves) {
+        int enemy = (side == Color.WHITE ? Color.BLACK : Color.WHITE).ordinal() * PIECE_TYPES;
+        long after = (occupied ^ (1L << source) ^ (1L << captured)) | (1L << target);
+        long enemyQueens = pieceBitboards[enemy + PieceType.QUEEN.ordinal()];
+        long attackers = (Attacks.bishopAttacks(king, after) & (pieceBitboards[enemy + PieceType.BISHOP.ordinal()] | enemyQueens))
+                | (Attacks.rookAttacks(king, after) & (pieceBitboards[enemy + PieceType.ROOK.ordinal()] | enemyQueens))
+                | (Attacks.knightAttacks(king) & pieceBitboards[enemy + PieceType.KNIGHT.ordinal()])
+                | (Attacks.pawnAttacks(side, king) & pieceBitboards[enemy + PieceType.PAWN.ordinal()] & ~(1L << captured));
+        if (attackers == 0) {
+            moves.add(Move.of(source, target, Move.EN_PASSANT));
+        }
+    }
+
+    private static void addPromotions(MoveList moves, int source, long targets) {
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            moves.add(Move.promotion(source, target, PieceType.QUEEN));
+            moves.add(Move.promotion(source, target, PieceType.ROOK));
+            moves.add(Move.promotion(source, target, PieceType.BISHOP));
+            moves.add(Move.promotion(source, target, PieceType.KNIGHT));
+            targets &= targets - 1;
+        }
+    }
+
+    private static long pinRay(long pinned, int king, int source) {
+        return (pinned & (1L << source)) != 0 ? Attacks.line(king, source) : -1L;
+    }
+
+    private static void addMoves(MoveList moves, int source, long targets) {
+        while (targets != 0) {
+            moves.add(Move.of(source, Long.numberOfTrailingZeros(targets)));
+            targets &= targets - 1;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package chess;
+
+public class MoveList {
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        moves = new int[256];
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void swap(int i, int j) {
+        int aux = moves[i];
+        moves[i] = moves[j];
+        moves[j] = aux;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
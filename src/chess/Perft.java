@@ -0,0 +1,67 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public class Perft {
+
+    private Perft() {
+    }
+
+    public static long perft(ChessMatch match, int depth) {
+        MoveList[] moveLists = new MoveList[Math.max(depth, 1)];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return perft(match, depth, moveLists);
+    }
+
+    private static long perft(ChessMatch match, int depth, MoveList[] moveLists) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[depth - 1];
+        match.generateLegalMoves(moves);
+        //the leaves are the legal moves of the last level, there is no need to make them
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            match.makeMove(moves.get(i));
+            nodes += perft(match, depth - 1, moveLists);
+            match.undoMove();
+        }
+        return nodes;
+    }
+
+    //leaf count below each root move, every root move searched on its own copy of the match
+    public static Map<String, Long> divide(ChessMatch match, int depth, ForkJoinPool pool) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Perft divide needs a depth of at least 1");
+        }
+        MoveList rootMoves = new MoveList();
+        match.generateLegalMoves(rootMoves);
+
+        List<ForkJoinTask<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            tasks.add(pool.submit(() -> {
+                ChessMatch copy = match.copy();
+                copy.makeMove(move);
+                return perft(copy, depth - 1);
+            }));
+        }
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            result.put(Move.toString(rootMoves.get(i)), tasks.get(i).join());
+        }
+        return result;
+    }
+}
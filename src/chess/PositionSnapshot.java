@@ -0,0 +1,232 @@
+package chess;
+
+import chess.enums.Color;
+import chess.enums.PieceType;
+
+//immutable position in four longs: occupancy, one nibble per occupied square (bitboard index, in square order,
+//at most 32 pieces) and a state word; nothing in it points back to a board, so it can be shared freely
+public final class PositionSnapshot {
+
+    private static final int PIECE_TYPES = PieceType.values().length;
+    private static final int BITBOARDS = Color.values().length * PIECE_TYPES;
+
+    //state word: bit 0 side to move (1 = white), 1-4 castling rights, 5-11 en passant square + 1 (0 = none),
+    //12-19 halfmove clock, 20-35 fullmove number
+    private static final int CASTLING_SHIFT = 1;
+    private static final int EN_PASSANT_SHIFT = 5;
+    private static final int HALFMOVE_SHIFT = 12;
+    private static final int FULLMOVE_SHIFT = 20;
+
+    private final long occupied;
+    private final long lowPieces;
+    private final long highPieces;
+    private final long state;
+
+    public PositionSnapshot(long occupied, long lowPieces, long highPieces, long state) {
+        this.occupied = occupied;
+        this.lowPieces = lowPieces;
+        this.highPieces = highPieces;
+        this.state = state;
+    }
+
+    public static PositionSnapshot of(long[] pieceBitboards, Color sideToMove, int castlingRights, int enPassantSquare, int halfmoveClock, int fullmoveNumber) {
+        long occupied = 0L;
+        for (int i = 0; i < BITBOARDS; i++) {
+            occupied |= pieceBitboards[i];
+        }
+        if (Long.bitCount(occupied) > 32) {
+            throw new IllegalArgumentException("A snapshot holds at most 32 pieces");
+        }
+
+        long low = 0L;
+        long high = 0L;
+        int n = 0;
+        long squares = occupied;
+        while (squares != 0) {
+            long bit = squares & -squares;
+            long index = indexOf(pieceBitboards, bit);
+            if (n < 16) {
+                low |= index << (n * 4);
+            } else {
+                high |= index << ((n - 16) * 4);
+            }
+            n++;
+            squares ^= bit;
+        }
+
+        return new PositionSnapshot(occupied, low, high, state(sideToMove, castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber));
+    }
+
+    public static long state(Color sideToMove, int castlingRights, int enPassantSquare, int halfmoveClock, int fullmoveNumber) {
+        return (sideToMove == Color.WHITE ? 1L : 0L)
+                | ((long) (castlingRights & Castling.ALL) << CASTLING_SHIFT)
+                | ((long) (enPassantSquare + 1) << EN_PASSANT_SHIFT)
+                | ((long) Math.min(halfmoveClock, 255) << HALFMOVE_SHIFT)
+                | ((long) (fullmoveNumber & 0xFFFF) << FULLMOVE_SHIFT);
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public long getLowPieces() {
+        return lowPieces;
+    }
+
+    public long getHighPieces() {
+        return highPieces;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public Color getSideToMove() {
+        return (state & 1) != 0 ? Color.WHITE : Color.BLACK;
+    }
+
+    public int getCastlingRights() {
+        return (int) (state >>> CASTLING_SHIFT) & Castling.ALL;
+    }
+
+    public int getEnPassantSquare() {
+        return (int) ((state >>> EN_PASSANT_SHIFT) & 127) - 1;
+    }
+
+    public int getHalfmoveClock() {
+        return (int) ((state >>> HALFMOVE_SHIFT) & 255);
+    }
+
+    public int getFullmoveNumber() {
+        return (int) ((state >>> FULLMOVE_SHIFT) & 0xFFFF);
+    }
+
+    //bitboard index (ChessBoard.index) of the piece on the square, -1 when it is empty
+    public int pieceIndex(int square) {
+        long bit = 1L << square;
+        if ((occupied & bit) == 0) {
+            return -1;
+        }
+        return nibble(Long.bitCount(occupied & (bit - 1)));
+    }
+
+    //fills the twelve piece bitboards, indexed like ChessBoard.index
+    public long[] unpack(long[] pieceBitboards) {
+        for (int i = 0; i < BITBOARDS; i++) {
+            pieceBitboards[i] = 0L;
+        }
+        int n = 0;
+        long squares = occupied;
+        while (squares != 0) {
+            long bit = squares & -squares;
+            pieceBitboards[nibble(n++)] |= bit;
+            squares ^= bit;
+        }
+        return pieceBitboards;
+    }
+
+    public long[] unpack() {
+        return unpack(new long[BITBOARDS]);
+    }
+
+    //read-only: unpacks into the given scratch array, so a worker can reuse one array for many snapshots
+    public void generateLegalMoves(long[] pieceBitboards, MoveList moves) {
+        MoveGenerator.generateLegalMoves(unpack(pieceBitboards), getSideToMove(), getCastlingRights(), getEnPassantSquare(), moves);
+    }
+
+    public void generateLegalMoves(MoveList moves) {
+        generateLegalMoves(new long[BITBOARDS], moves);
+    }
+
+    //why no game can reach the position, or null: one king per side, no pawn on the first or last rank, the side that
+    //just moved not in check, and castling rights only with the king and the rook still on their home squares
+    String illegality() {
+        long[] pieceBitboards = unpack();
+        for (Color color : Color.values()) {
+            if (Long.bitCount(pieceBitboards[ChessBoard.index(color, PieceType.KING)]) != 1) {
+                return "the position must have exactly one king of each color";
+            }
+            if ((pieceBitboards[ChessBoard.index(color, PieceType.PAWN)] & 0xFF000000000000FFL) != 0) {
+                return "a pawn stands on the first or last rank";
+            }
+        }
+        Color side = getSideToMove();
+        Color opponent = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+        int king = Long.numberOfTrailingZeros(pieceBitboards[ChessBoard.index(opponent, PieceType.KING)]);
+        if (ChessBoard.isSquareAttacked(pieceBitboards, occupied, king, side)) {
+            return "the side not to move is in check";
+        }
+        int rights = getCastlingRights();
+        for (Color color : Color.values()) {
+            int kingSquare = Castling.kingSquare(color);
+            long kingHome = pieceBitboards[ChessBoard.index(color, PieceType.KING)] & (1L << kingSquare);
+            long rooks = pieceBitboards[ChessBoard.index(color, PieceType.ROOK)];
+            if ((rights & Castling.kingSide(color)) != 0 && (kingHome == 0 || (rooks & (1L << (kingSquare + 3))) == 0)
+                    || (rights & Castling.queenSide(color)) != 0 && (kingHome == 0 || (rooks & (1L << (kingSquare - 4))) == 0)) {
+                return "a castling right has no king or rook on its home square";
+            }
+        }
+        return null;
+    }
+
+    //same key as ChessMatch.getZobristKey for the same position
+    public long getZobristKey() {
+        long key = 0L;
+        int n = 0;
+        long squares = occupied;
+        while (squares != 0) {
+            key ^= Zobrist.piece(nibble(n++), Long.numberOfTrailingZeros(squares));
+            squares &= squares - 1;
+        }
+        Color side = getSideToMove();
+        key ^= Zobrist.sideToMove(side) ^ Zobrist.castling(getCastlingRights());
+        int enPassantSquare = getEnPassantSquare();
+        if (enPassantSquare >= 0) {
+            Color them = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+            long pawns = 0L;
+            n = 0;
+            squares = occupied;
+            int pawn = ChessBoard.index(side, PieceType.PAWN);
+            while (squares != 0) {
+                if (nibble(n++) == pawn) {
+                    pawns |= squares & -squares;
+                }
+                squares &= squares - 1;
+            }
+            if ((Attacks.pawnAttacks(them, enPassantSquare) & pawns) != 0) {
+                key ^= Zobrist.enPassant(enPassantSquare);
+            }
+        }
+        return key;
+    }
+
+    private int nibble(int n) {
+        return n < 16 ? (int) (lowPieces >>> (n * 4)) & 15 : (int) (highPieces >>> ((n - 16) * 4)) & 15;
+    }
+
+    private static long indexOf(long[] pieceBitboards, long bit) {
+        for (int i = 0; i < BITBOARDS; i++) {
+            if ((pieceBitboards[i] & bit) != 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PositionSnapshot)) {
+            return false;
+        }
+        PositionSnapshot other = (PositionSnapshot) o;
+        return occupied == other.occupied && lowPieces == other.lowPieces && highPieces == other.highPieces && state == other.state;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(occupied * 31 + lowPieces) * 31 + Long.hashCode(highPieces * 31 + state);
+    }
+}
@@ -0,0 +1,126 @@
+package chess;
+
+public class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    //entry layout: bits 0-15 move, 16-31 score, 32-39 depth, 40-41 bound, 42-47 age
+    private static final int ENTRY_BYTES = 16;
+
+    //each slot keeps key ^ data next to data, so a torn write from another thread fails the key check instead of being read
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private int age;
+
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB");
+        }
+        long entries = Long.highestOneBit((long) sizeMb * 1024 * 1024 / ENTRY_BYTES);
+        entries = Math.min(entries, 1 << 30);
+        keys = new long[(int) entries];
+        data = new long[(int) entries];
+        mask = (int) entries - 1;
+    }
+
+    public int getSize() {
+        return keys.length;
+    }
+
+    //called once per search so entries from older searches are replaced first
+    public void newSearch() {
+        age = (age + 1) & 63;
+    }
+
+    public void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 0L;
+            data[i] = 0L;
+        }
+        age = 0;
+    }
+
+    public long probe(ChessMatch match) {
+        return probe(match.getZobristKey());
+    }
+
+    //the packed entry for the key, or 0 when there is none
+    public long probe(long key) {
+        int index = bucket(key);
+        for (int i = index; i < index + 2; i++) {
+            long entry = data[i];
+            if (entry != 0 && (keys[i] ^ entry) == key) {
+                return entry;
+            }
+        }
+        return 0L;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = bucket(key);
+        int replace = index;
+        for (int i = index; i < index + 2; i++) {
+            long entry = data[i];
+            if (entry == 0 || (keys[i] ^ entry) == key) {
+                replace = i;
+                break;
+            }
+            if (priority(entry) < priority(data[replace])) {
+                replace = i;
+            }
+        }
+
+        long entry = (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) (Math.max(0, Math.min(depth, 255))) << 32)
+                | ((long) bound << 40)
+                | ((long) age << 42);
+        keys[replace] = key ^ entry;
+        data[replace] = entry;
+    }
+
+    //permille of the sampled slots written during the current search
+    public int hashfull() {
+        int used = 0;
+        int sample = Math.min(1000, data.length);
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != 0 && age(data[i]) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 32) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 40) & 3);
+    }
+
+    private static int age(long entry) {
+        return (int) ((entry >>> 42) & 63);
+    }
+
+    //stale entries go first, then the shallower one
+    private int priority(long entry) {
+        int staleness = (age - age(entry)) & 63;
+        return depth(entry) - 8 * staleness;
+    }
+
+    private int bucket(long key) {
+        return (int) key & mask & ~1;
+    }
+}
@@ -0,0 +1,56 @@
+package chess;
+
+import chess.enums.Color;
+import chess.enums.PieceType;
+
+public final class Zobrist {
+
+    private static final long[][] PIECES = new long[Color.values().length * PieceType.values().length][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    private static long seed = 0x5DEECE66DL;
+
+    static {
+        for (long[] squares : PIECES) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = nextRandom();
+            }
+        }
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = nextRandom();
+        }
+        for (int i = 0; i < EN_PASSANT.length; i++) {
+            EN_PASSANT[i] = nextRandom();
+        }
+        BLACK_TO_MOVE = nextRandom();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int index, int square) {
+        return PIECES[index][square];
+    }
+
+    public static long castling(int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    public static long enPassant(int square) {
+        return EN_PASSANT[square % 8];
+    }
+
+    public static long sideToMove(Color color) {
+        return color == Color.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    //splitmix64, seeded so keys stay the same between runs and can be stored
+    private static long nextRandom() {
+        long z = (seed += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
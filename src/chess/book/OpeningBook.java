@@ -0,0 +1,153 @@
+package chess.book;
+
+import chess.ChessMatch;
+import chess.MoveList;
+import chess.exceptions.ChessException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+//read-only opening book, memory-mapped and searched in place, so opening it costs the same for any size and none of
+//it lands on the heap; the layout is Polyglot's: 16-byte big-endian entries (key, move, weight, learn) sorted by
+//key as an unsigned number, but the key is ChessMatch.getZobristKey and the move is the low 16 bits of Move
+public class OpeningBook implements Closeable {
+
+    static final int ENTRY_SIZE = 16;
+    //a mapping holds at most 2 GB, so a bigger book is mapped in 1 GB chunks, each a whole number of entries
+    private static final int CHUNK_SHIFT = 30;
+    private static final int ENTRIES_PER_CHUNK = (1 << CHUNK_SHIFT) / ENTRY_SIZE;
+
+    private FileChannel channel;
+    private MappedByteBuffer[] chunks;
+    private long entries;
+
+    private OpeningBook(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size % ENTRY_SIZE != 0) {
+            throw new ChessException("Invalid opening book: the size " + size + " is not a whole number of entries.");
+        }
+        entries = size / ENTRY_SIZE;
+        chunks = new MappedByteBuffer[(int) ((size + (1L << CHUNK_SHIFT) - 1) >>> CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            long offset = (long) i << CHUNK_SHIFT;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(1L << CHUNK_SHIFT, size - offset));
+        }
+    }
+
+    public static OpeningBook open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new OpeningBook(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return entries;
+    }
+
+    public long key(long entry) {
+        return chunk(entry).getLong(offset(entry));
+    }
+
+    public int move(long entry) {
+        return chunk(entry).getShort(offset(entry) + 8) & 0xFFFF;
+    }
+
+    public int weight(long entry) {
+        return chunk(entry).getShort(offset(entry) + 10) & 0xFFFF;
+    }
+
+    //first entry with the key, or -1; the entries for one key are next to each other
+    public long find(long key) {
+        long low = 0;
+        long high = entries;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(key(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < entries && key(low) == key ? low : -1;
+    }
+
+    //the book moves for the position that are legal in it, so a stale book or a key collision can never return a
+    //bad move; weights[i] goes with moves.get(i) and the total weight is returned
+    public int moves(ChessMatch match, MoveList moves, int[] weights, MoveList legalMoves) {
+        moves.clear();
+        long key = match.getZobristKey();
+        long entry = find(key);
+        if (entry < 0) {
+            return 0;
+        }
+        match.generateLegalMoves(legalMoves);
+        int total = 0;
+        for (; entry < entries && key(entry) == key && moves.size() < weights.length; entry++) {
+            int move = move(entry);
+            int weight = weight(entry);
+            if (weight > 0 && legalMoves.contains(move)) {
+                weights[moves.size()] = weight;
+                moves.add(move);
+                total += weight;
+            }
+        }
+        return total;
+    }
+
+    //a book move picked with a chance in proportion to its weight, 0 when the position is not in the book
+    public int pickMove(ChessMatch match, Random random) {
+        MoveList moves = new MoveList();
+        int[] weights = new int[256];
+        int total = moves(match, moves, weights, new MoveList());
+        if (total == 0) {
+            return 0;
+        }
+        int pick = random.nextInt(total);
+        for (int i = 0; i < moves.size(); i++) {
+            pick -= weights[i];
+            if (pick < 0) {
+                return moves.get(i);
+            }
+        }
+        return moves.get(moves.size() - 1);
+    }
+
+    //the heaviest book move, 0 when the position is not in the book
+    public int bestMove(ChessMatch match) {
+        MoveList moves = new MoveList();
+        int[] weights = new int[256];
+        moves(match, moves, weights, new MoveList());
+        int best = 0;
+        int bestWeight = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            if (weights[i] > bestWeight) {
+                best = moves.get(i);
+                bestWeight = weights[i];
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer chunk(long entry) {
+        return chunks[(int) (entry / ENTRIES_PER_CHUNK)];
+    }
+
+    private static int offset(long entry) {
+        return (int) (entry % ENTRIES_PER_CHUNK) * ENTRY_SIZE;
+    }
+}
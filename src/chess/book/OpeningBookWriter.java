@@ -0,0 +1,73 @@
+package chess.book;
+
+import chess.ChessMatch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//collects weighted moves per position and writes them as an OpeningBook file; the same move added twice for a
+//position adds up its weights
+public class OpeningBookWriter {
+
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private Map<Long, Map<Integer, Integer>> positions = new HashMap<>();
+
+    //the move about to be made in the match
+    public void add(ChessMatch match, int move, int weight) {
+        add(match.getZobristKey(), move, weight);
+    }
+
+    public void add(long key, int move, int weight) {
+        if (weight <= 0) {
+            return;
+        }
+        positions.computeIfAbsent(key, k -> new HashMap<>()).merge(move & 0xFFFF, weight, Integer::sum);
+    }
+
+    public int getPositions() {
+        return positions.size();
+    }
+
+    //entries sorted by unsigned key, and by weight from the heaviest within a key, as Polyglot orders them
+    public long write(Path file) throws IOException {
+        List<Long> keys = new ArrayList<>(positions.keySet());
+        keys.sort(Long::compareUnsigned);
+        long entries = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            for (long key : keys) {
+                List<Map.Entry<Integer, Integer>> moves = new ArrayList<>(positions.get(key).entrySet());
+                moves.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+                for (Map.Entry<Integer, Integer> move : moves) {
+                    if (buffer.remaining() < OpeningBook.ENTRY_SIZE) {
+                        drain(buffer, channel);
+                    }
+                    buffer.putLong(key)
+                            .putShort((short) (int) move.getKey())
+                            .putShort((short) Math.min(move.getValue(), MAX_WEIGHT))
+                            .putInt(0);
+                    entries++;
+                }
+            }
+            drain(buffer, channel);
+        }
+        return entries;
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
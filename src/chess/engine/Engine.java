@@ -0,0 +1,290 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+import chess.TranspositionTable;
+import chess.tablebase.Tablebases;
+
+import java.util.Arrays;
+
+public class Engine {
+
+    public static final int MATE = 30000;
+    public static final int INFINITY = 32000;
+
+    static final int MAX_PLY = 128;
+
+    private TranspositionTable transpositionTable;
+    private Tablebases tablebases;
+    private MoveList[] moveLists;
+    private MoveOrdering ordering;
+    private volatile boolean stopped;
+    private long deadline;
+    private long nodes;
+    private int rootBestMove;
+
+    public Engine(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+        moveLists = new MoveList[MAX_PLY + 1];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        ordering = new MoveOrdering();
+    }
+
+    public Engine() {
+        this(new TranspositionTable(16));
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    //null to search endgames out instead of looking them up
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public SearchResult search(ChessMatch match, SearchLimits limits) {
+        reset();
+        transpositionTable.newSearch();
+        return search(match, limits, 1);
+    }
+
+    //clears a previous stop; kept apart from the search so a helper stopped before it starts stays stopped
+    void reset() {
+        stopped = false;
+    }
+
+    //iterative deepening: every finished depth gives a usable result, so the search can stop at any time
+    SearchResult search(ChessMatch match, SearchLimits limits, int firstDepth) {
+        long start = System.currentTimeMillis();
+        deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() : Long.MAX_VALUE;
+        nodes = 0;
+        ordering.newSearch();
+
+        MoveList rootMoves = new MoveList();
+        match.generateLegalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            return new SearchResult(0, match.isInCheck() ? -MATE : 0, 0, 0, 0, new int[0]);
+        }
+
+        int bestMove = rootMoves.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = Math.min(firstDepth, limits.getDepth()); depth <= limits.getDepth(); depth++) {
+            rootBestMove = 0;
+            int score = search(match, depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                break;
+            }
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            //a forced mate will not change with more depth
+            if (Math.abs(score) >= MATE - depth) {
+                break;
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, elapsed, principalVariation(match, bestMove, completedDepth));
+    }
+
+    private int search(ChessMatch match, int depth, int alpha, int beta, int ply) {
+        if (ply > 0 && match.isRepetition()) {
+            return 0;
+        }
+        //a table gives the exact result; its mate distance counts from here, so the plies so far are added
+        if (tablebases != null && ply > 0) {
+            int score = tablebases.probe(match);
+            if (score != Tablebases.UNKNOWN) {
+                nodes++;
+                int plies = Tablebases.MATE - Math.abs(score);
+                return score > 0 ? MATE - ply - plies : score < 0 ? -(MATE - ply - plies) : 0;
+            }
+        }
+        boolean inCheck = match.isInCheck();
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiescence(match, alpha, beta, ply);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        long key = match.getZobristKey();
+        long entry = transpositionTable.probe(key);
+        int hashMove = 0;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        match.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        ordering.score(match, moves, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = ordering.next(moves, i, ply);
+            boolean quiet = !match.isCapture(move) && Move.type(move) != Move.PROMOTION;
+            match.makeMove(move);
+            int score;
+            //principal variation search: the first move gets the full window, the others only have to prove they are worse
+            if (i == 0) {
+                score = -search(match, depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                score = -search(match, depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -search(match, depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            match.undoMove();
+
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (quiet) {
+                            ordering.cutoff(match, move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        transpositionTable.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    //only captures and promotions, so the static evaluation is never taken in the middle of an exchange
+    private int quiescence(ChessMatch match, int alpha, int beta, int ply) {
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return Evaluation.evaluate(match);
+        }
+        boolean inCheck = match.isInCheck();
+        int bestScore = -INFINITY;
+        if (!inCheck) {
+            bestScore = Evaluation.evaluate(match);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        MoveList moves = moveLists[ply];
+        match.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        ordering.score(match, moves, ply, 0);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = ordering.next(moves, i, ply);
+            if (!inCheck && !match.isCapture(move) && Move.type(move) != Move.PROMOTION) {
+                continue;
+            }
+            match.makeMove(move);
+            int score = -quiescence(match, -beta, -alpha, ply + 1);
+            match.undoMove();
+
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private boolean countNode() {
+        nodes++;
+        if ((nodes & 2047) == 0 && System.currentTimeMillis() > deadline) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    //mate scores are stored relative to the node, so they stay right when the position is reached at another ply
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY * 2) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY * 2) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY * 2) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY * 2) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    //follows the hash moves from the root, checking each one is still legal
+    private int[] principalVariation(ChessMatch match, int bestMove, int depth) {
+        MoveList moves = new MoveList();
+        int[] line = new int[Math.max(depth, 1)];
+        int length = 0;
+        int move = bestMove;
+        while (move != 0 && length < line.length) {
+            match.generateLegalMoves(moves);
+            if (!moves.contains(move)) {
+                break;
+            }
+            line[length++] = move;
+            match.makeMove(move);
+            move = TranspositionTable.move(transpositionTable.probe(match));
+        }
+        for (int i = 0; i < length; i++) {
+            match.undoMove();
+        }
+        return Arrays.copyOf(line, length);
+    }
+}
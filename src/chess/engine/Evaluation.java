@@ -0,0 +1,26 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.PieceSquareTables;
+import chess.enums.Color;
+import chess.enums.PieceType;
+
+public final class Evaluation {
+
+    private static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+    private Evaluation() {
+    }
+
+    public static int pieceValue(PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+
+    //material and piece-square score from the point of view of the side to move, blended from middlegame to endgame
+    //as pieces come off; the board keeps both sums up to date, so this costs the same in any position
+    public static int evaluate(ChessMatch match) {
+        int phase = match.getPhase();
+        int score = (match.getMiddlegameScore() * phase + match.getEndgameScore() * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return match.getCurrentPlayer() == Color.WHITE ? score : -score;
+    }
+}
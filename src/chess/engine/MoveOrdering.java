@@ -0,0 +1,108 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+import chess.enums.PieceType;
+
+//scores the generated moves and hands them out best first: hash move, captures by MVV-LVA, killers, then history
+public class MoveOrdering {
+
+    private static final int HASH_MOVE = 1_000_000;
+    private static final int CAPTURE = 500_000;
+    private static final int FIRST_KILLER = 400_000;
+    private static final int SECOND_KILLER = 399_000;
+    private static final int HISTORY_LIMIT = 300_000;
+
+    private int[][] scores;
+    private int[][] killers;
+    //indexed by side to move, then source * 64 + target
+    private int[][] history;
+
+    public MoveOrdering() {
+        scores = new int[Engine.MAX_PLY + 1][256];
+        killers = new int[Engine.MAX_PLY + 1][2];
+        history = new int[2][64 * 64];
+    }
+
+    //killers only make sense inside one search; history is halved so it still helps but older results fade
+    public void newSearch() {
+        for (int[] pair : killers) {
+            pair[0] = 0;
+            pair[1] = 0;
+        }
+        ageHistory();
+    }
+
+    public void score(ChessMatch match, MoveList moves, int ply, int hashMove) {
+        int[] plyScores = scores[ply];
+        int[] sideHistory = history[match.getCurrentPlayer().ordinal()];
+        int[] plyKillers = killers[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (move == hashMove) {
+                plyScores[i] = HASH_MOVE;
+            } else if (match.isCapture(move) || Move.type(move) == Move.PROMOTION) {
+                plyScores[i] = CAPTURE + captureScore(match, move);
+            } else if (move == plyKillers[0]) {
+                plyScores[i] = FIRST_KILLER;
+            } else if (move == plyKillers[1]) {
+                plyScores[i] = SECOND_KILLER;
+            } else {
+                plyScores[i] = sideHistory[Move.source(move) * 64 + Move.target(move)];
+            }
+        }
+    }
+
+    //selection sort one step at a time: a cutoff after the first few moves never pays for sorting the rest
+    public int next(MoveList moves, int index, int ply) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int aux = plyScores[index];
+            plyScores[index] = plyScores[best];
+            plyScores[best] = aux;
+        }
+        return moves.get(index);
+    }
+
+    //called with the quiet move that caused a beta cutoff
+    public void cutoff(ChessMatch match, int move, int depth, int ply) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int[] sideHistory = history[match.getCurrentPlayer().ordinal()];
+        int index = Move.source(move) * 64 + Move.target(move);
+        sideHistory[index] += depth * depth;
+        if (sideHistory[index] >= HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    //most valuable victim first, then the least valuable attacker; promotions count the new piece as the gain
+    private static int captureScore(ChessMatch match, int move) {
+        PieceType victim = Move.type(move) == Move.EN_PASSANT ? PieceType.PAWN : match.getPieceType(Move.target(move));
+        PieceType attacker = match.getPieceType(Move.source(move));
+        int gain = victim == null ? 0 : Evaluation.pieceValue(victim);
+        if (Move.type(move) == Move.PROMOTION) {
+            gain += Evaluation.pieceValue(Move.promotionType(move)) - Evaluation.pieceValue(PieceType.PAWN);
+        }
+        return gain * 8 - attacker.ordinal();
+    }
+
+    private void ageHistory() {
+        for (int[] sideHistory : history) {
+            for (int i = 0; i < sideHistory.length; i++) {
+                sideHistory[i] >>= 1;
+            }
+        }
+    }
+}
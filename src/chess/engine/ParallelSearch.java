@@ -0,0 +1,142 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.TranspositionTable;
+import chess.tablebase.Tablebases;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//Lazy SMP: every thread searches the same root on its own copy of the match, and they only cooperate through the shared table
+public class ParallelSearch implements AutoCloseable {
+
+    private TranspositionTable transpositionTable;
+    private Engine[] engines;
+    private long[] threadNodes;
+    private ExecutorService helpers;
+
+    public ParallelSearch(TranspositionTable transpositionTable, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("There must be at least 1 search thread");
+        }
+        this.transpositionTable = transpositionTable;
+        engines = new Engine[threads];
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new Engine(transpositionTable);
+        }
+        threadNodes = new long[threads];
+        if (threads > 1) {
+            helpers = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public ParallelSearch(int threads) {
+        this(new TranspositionTable(64), threads);
+    }
+
+    public ParallelSearch() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getThreads() {
+        return engines.length;
+    }
+
+    //nodes searched by each thread in the last search, the main thread first
+    public long[] getThreadNodes() {
+        return threadNodes.clone();
+    }
+
+    public void setTablebases(Tablebases tablebases) {
+        for (Engine engine : engines) {
+            engine.setTablebases(tablebases);
+        }
+    }
+
+    public void stop() {
+        for (Engine engine : engines) {
+            engine.stop();
+        }
+    }
+
+    //the calling thread is the main thread; its result is the answer unless a helper finished a deeper iteration
+    public SearchResult search(ChessMatch match, SearchLimits limits) {
+        long start = System.currentTimeMillis();
+        for (Engine engine : engines) {
+            engine.reset();
+        }
+        transpositionTable.newSearch();
+
+        List<Future<SearchResult>> futures = new ArrayList<>();
+        for (int i = 1; i < engines.length; i++) {
+            Engine engine = engines[i];
+            ChessMatch copy = match.copy();
+            //odd helpers start one ply deeper, so the threads spread over two depths instead of racing on the same one
+            int firstDepth = 1 + (i & 1);
+            futures.add(helpers.submit(() -> engine.search(copy, limits, firstDepth)));
+        }
+
+        SearchResult best;
+        try {
+            best = engines[0].search(match, limits, 1);
+        } catch (RuntimeException e) {
+            //the helpers would otherwise search on until their limits, infinite ones forever
+            stop();
+            for (Future<SearchResult> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException ignored) {
+                    //the main thread's failure is the one reported
+                }
+            }
+            throw e;
+        }
+        for (int i = 1; i < engines.length; i++) {
+            engines[i].stop();
+        }
+
+        long nodes = engines[0].getNodes();
+        threadNodes[0] = nodes;
+        for (int i = 0; i < futures.size(); i++) {
+            SearchResult result = await(futures.get(i));
+            threadNodes[i + 1] = result.getNodes();
+            nodes += result.getNodes();
+            if (result.getDepth() > best.getDepth() && result.getBestMove() != 0) {
+                best = result;
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), nodes, elapsed, best.getPrincipalVariation());
+    }
+
+    private static SearchResult await(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search thread", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A search thread failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+        if (helpers != null) {
+            helpers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package chess.engine;
+
+public class SearchLimits {
+
+    public static final int MAX_DEPTH = 64;
+
+    private int depth;
+    private long timeMillis;
+
+    public SearchLimits(int depth, long timeMillis) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1");
+        }
+        this.depth = Math.min(depth, MAX_DEPTH);
+        this.timeMillis = timeMillis;
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0);
+    }
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(MAX_DEPTH, timeMillis);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    //0 means no time limit
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+}
@@ -0,0 +1,63 @@
+package chess.engine;
+
+import chess.Move;
+
+public class SearchResult {
+
+    private int bestMove;
+    private int score;
+    private int depth;
+    private long nodes;
+    private long timeMillis;
+    private int[] principalVariation;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long timeMillis, int[] principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.principalVariation = principalVariation;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return timeMillis > 0 ? nodes * 1000 / timeMillis : nodes * 1000;
+    }
+
+    public int[] getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    public boolean isMate() {
+        return Math.abs(score) >= Engine.MATE - SearchLimits.MAX_DEPTH * 4;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder pv = new StringBuilder();
+        for (int move : principalVariation) {
+            pv.append(' ').append(Move.toString(move));
+        }
+        return "depth " + depth + " score " + score + " nodes " + nodes + " nps " + getNodesPerSecond() + " pv" + pv;
+    }
+}
@@ -0,0 +1,230 @@
+package chess.log;
+
+import chess.ChessMatch;
+import chess.MatchListener;
+import chess.PositionSnapshot;
+import chess.exceptions.ChessException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//append-only game file, written through a memory map so a move costs a 2-byte store and no system call; the log
+//listens to its match, so every move made through performChessMove is recorded, whoever makes it; the pages
+//reach the disk with the OS's own write-back, and a crash of the program loses nothing already stored
+//layout: header (magic, version, starting position), then records of 16 bits each: a move (the low 16 bits of
+//Move, never 0), or CHECKPOINT followed by the position after the moves so far; unwritten space is zero-filled,
+//and a 0 record marks the end
+public class GameLog implements Closeable {
+
+    private static final int MAGIC = 0x43474C31;
+    private static final int VERSION = 1;
+    private static final int SNAPSHOT_SIZE = 4 * Long.BYTES;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + SNAPSHOT_SIZE;
+    //source and target both h1: no move looks like this
+    private static final short CHECKPOINT = (short) 0xFFFF;
+    private static final int CHECKPOINT_SIZE = Short.BYTES + SNAPSHOT_SIZE;
+    private static final int CHECKPOINT_INTERVAL = 64;
+    //room for some 30000 moves, so a game practically never has to remap: the JDK can not unmap a buffer, and every
+    //smaller mapping stays alive until the garbage collector finds it
+    private static final int INITIAL_SIZE = 64 * 1024;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private ChessMatch match;
+    private int position;
+    private int movesSinceCheckpoint;
+
+    private GameLog(FileChannel channel, int size, ChessMatch match) throws IOException {
+        this.channel = channel;
+        this.match = match;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    //a new log for the match, starting from its current position; an existing file is overwritten
+    public static GameLog create(Path file, ChessMatch match) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        GameLog log = new GameLog(channel, INITIAL_SIZE, match);
+        log.buffer.putInt(0, MAGIC);
+        log.buffer.putInt(Integer.BYTES, VERSION);
+        writeSnapshot(log.buffer, 2 * Integer.BYTES, match.toSnapshot());
+        log.buffer.force();
+        log.position = HEADER_SIZE;
+        match.setListener(log.listener());
+        return log;
+    }
+
+    //replays the log into a new match and leaves the log ready to append to it; a damaged tail (a move that is not
+    //legal, or a checkpoint that does not match the replay) is cut at the last good record
+    public static GameLog resume(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new ChessException("Invalid game log " + file + ": bad size " + size + ".");
+        }
+        GameLog log = new GameLog(channel, (int) size, null);
+        try {
+            if (log.buffer.getInt(0) != MAGIC || log.buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new ChessException("Invalid game log " + file + ": unknown format.");
+            }
+            PositionSnapshot start = readSnapshot(log.buffer, 2 * Integer.BYTES);
+            log.match = ChessMatch.fromSnapshot(start);
+            int limit = log.replay((int) size);
+            if (limit >= 0) {
+                //a checkpoint disagreed with the replay, so the moves since the one before it can not be trusted either
+                log.match = ChessMatch.fromSnapshot(start);
+                log.replay(limit);
+            }
+        } catch (RuntimeException e) {
+            log.close();
+            throw e;
+        }
+
+        //whatever follows the last good record is cleared, so the end marker is back in place
+        for (int i = log.position; i < size; i++) {
+            log.buffer.put(i, (byte) 0);
+        }
+        log.match.setListener(log.listener());
+        return log;
+    }
+
+    //replays the records before limit, stopping at the end marker or the first move that is not legal; returns -1,
+    //or the end of the last good checkpoint when a checkpoint does not match the position reached
+    private int replay(int limit) {
+        int verified = HEADER_SIZE;
+        position = HEADER_SIZE;
+        movesSinceCheckpoint = 0;
+        while (position + Short.BYTES <= limit) {
+            short record = buffer.getShort(position);
+            if (record == 0) {
+                break;
+            }
+            if (record == CHECKPOINT) {
+                if (position + CHECKPOINT_SIZE > limit) {
+                    break;
+                }
+                if (!readSnapshot(buffer, position + Short.BYTES).equals(match.toSnapshot())) {
+                    return verified;
+                }
+                position += CHECKPOINT_SIZE;
+                verified = position;
+                movesSinceCheckpoint = 0;
+                continue;
+            }
+            try {
+                match.performChessMove(record & 0xFFFF);
+            } catch (ChessException e) {
+                break;
+            }
+            position += Short.BYTES;
+            movesSinceCheckpoint++;
+        }
+        return -1;
+    }
+
+    public ChessMatch getMatch() {
+        return match;
+    }
+
+    //bytes used, header included
+    public int getSize() {
+        return position;
+    }
+
+    private MatchListener listener() {
+        return new MatchListener() {
+            @Override
+            public void beforeMove(ChessMatch match, int move) {
+                ensureCapacity();
+            }
+
+            @Override
+            public void afterMove(ChessMatch match, int move) {
+                record(match, move);
+            }
+
+            @Override
+            public void beforeUndo(ChessMatch match, int move) {
+                erase();
+            }
+        };
+    }
+
+    //room for the next move, a checkpoint and the end marker; it is made before the move, so a file that can not grow
+    //fails performChessMove with an UncheckedIOException and leaves the match and the log as they were
+    private void ensureCapacity() {
+        if (position + Short.BYTES + CHECKPOINT_SIZE + Short.BYTES > buffer.capacity()) {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, buffer.capacity() * 2L);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not grow the game log", e);
+            }
+        }
+    }
+
+    //records the move just made in the match, and every CHECKPOINT_INTERVAL moves the position it led to; the room
+    //for it was made before the move
+    private void record(ChessMatch match, int move) {
+        buffer.putShort(position, (short) move);
+        position += Short.BYTES;
+        if (++movesSinceCheckpoint == CHECKPOINT_INTERVAL) {
+            writeSnapshot(buffer, position + Short.BYTES, match.toSnapshot());
+            //the marker goes last, so a checkpoint is never seen half written
+            buffer.putShort(position, CHECKPOINT);
+            position += CHECKPOINT_SIZE;
+            movesSinceCheckpoint = 0;
+        }
+    }
+
+    //removes the last move, and the checkpoint after it if there is one; markers are cleared first, so the log never
+    //shows a half-removed record
+    private void erase() {
+        if (position == HEADER_SIZE) {
+            throw new ChessException("The move can not be taken back: it was made before the game log started.");
+        }
+        if (movesSinceCheckpoint == 0) {
+            position -= CHECKPOINT_SIZE;
+            buffer.putShort(position, (short) 0);
+            for (int i = Short.BYTES; i < CHECKPOINT_SIZE; i++) {
+                buffer.put(position + i, (byte) 0);
+            }
+            movesSinceCheckpoint = CHECKPOINT_INTERVAL;
+        }
+        position -= Short.BYTES;
+        buffer.putShort(position, (short) 0);
+        movesSinceCheckpoint--;
+    }
+
+    //writes the mapped pages to the disk now, rather than when the OS gets to them
+    public void flush() {
+        buffer.force();
+    }
+
+    //the match is left as it is, only no longer logged; a resume that failed before replaying has no match yet
+    @Override
+    public void close() throws IOException {
+        if (match != null) {
+            match.setListener(null);
+        }
+        buffer.force();
+        channel.close();
+    }
+
+    private static void writeSnapshot(MappedByteBuffer buffer, int offset, PositionSnapshot snapshot) {
+        buffer.putLong(offset, snapshot.getOccupied());
+        buffer.putLong(offset + Long.BYTES, snapshot.getLowPieces());
+        buffer.putLong(offset + 2 * Long.BYTES, snapshot.getHighPieces());
+        buffer.putLong(offset + 3 * Long.BYTES, snapshot.getState());
+    }
+
+    private static PositionSnapshot readSnapshot(MappedByteBuffer buffer, int offset) {
+        return new PositionSnapshot(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES),
+                buffer.getLong(offset + 2 * Long.BYTES), buffer.getLong(offset + 3 * Long.BYTES));
+    }
+}
@@ -0,0 +1,65 @@
+package chess.notation;
+
+import chess.ChessMatch;
+import chess.MoveList;
+
+//reads a move in whatever notation it comes in: coordinate ("e2e4", "e2-e4"), UCI ("e7e8q") or SAN ("Nxf3+", "O-O")
+public final class Notation {
+
+    //negative results, so a bad token costs no exception
+    public static final int NO_MOVE = -1;
+    public static final int AMBIGUOUS = -2;
+    public static final int MALFORMED = -3;
+
+    private Notation() {
+    }
+
+    public static int parseMove(ChessMatch match, CharSequence text, MoveList legalMoves) {
+        return parseMove(match, text, 0, text.length(), legalMoves);
+    }
+
+    //surrounding spaces are ignored; legalMoves is scratch space
+    public static int parseMove(ChessMatch match, CharSequence text, int start, int end, MoveList legalMoves) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        //a coordinate move starts with two squares, which no SAN move does; "B7d4" is a bishop, not b7d4
+        if (end - start >= 4 && text.charAt(start) != 'B' && parseSquare(text, start) >= 0) {
+            int next = isSeparator(text.charAt(start + 2)) ? start + 3 : start + 2;
+            if (next + 1 < end && parseSquare(text, next) >= 0) {
+                return Uci.parse(match, text, start, end, legalMoves);
+            }
+        }
+        return San.parse(match, text, start, end, legalMoves);
+    }
+
+    //square index of a two-character square name such as "e4" (either case), MALFORMED otherwise
+    public static int parseSquare(CharSequence text, int start) {
+        if (start + 1 >= text.length()) {
+            return MALFORMED;
+        }
+        int file = Character.toLowerCase(text.charAt(start)) - 'a';
+        int rank = text.charAt(start + 1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            return MALFORMED;
+        }
+        return (7 - rank) * 8 + file;
+    }
+
+    public static int parseSquare(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end - start == 2 ? parseSquare(text, start) : MALFORMED;
+    }
+
+    static boolean isSeparator(char c) {
+        return c == '-' || c == 'x' || c == ' ';
+    }
+}
@@ -0,0 +1,192 @@
+package chess.notation;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+import chess.enums.PieceType;
+
+//standard algebraic notation ("Nbd7", "exd6", "e8=Q+", "O-O"), matched against the legal moves of the match
+public final class San {
+
+    private San() {
+    }
+
+    public static int parse(ChessMatch match, CharSequence text, MoveList legalMoves) {
+        return parse(match, text, 0, text.length(), legalMoves);
+    }
+
+    //legalMoves is scratch space, filled here with the moves of the side to move
+    public static int parse(ChessMatch match, CharSequence text, int start, int end, MoveList legalMoves) {
+        //check, mate and annotation marks do not change the move
+        while (end > start && isSuffix(text.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start < 2) {
+            return Notation.MALFORMED;
+        }
+        match.generateLegalMoves(legalMoves);
+
+        if (text.charAt(start) == 'O' || text.charAt(start) == '0') {
+            return parseCastling(text, start, end, legalMoves);
+        }
+
+        PieceType type = PieceType.PAWN;
+        char first = text.charAt(start);
+        if (first >= 'A' && first <= 'Z') {
+            type = pieceType(first);
+            if (type == null || type == PieceType.PAWN) {
+                return Notation.MALFORMED;
+            }
+            start++;
+        }
+
+        //promotion suffix: "=Q" or a bare "Q"
+        PieceType promotion = null;
+        char last = text.charAt(end - 1);
+        if (last >= 'A' && last <= 'Z') {
+            promotion = pieceType(last);
+            if (type != PieceType.PAWN || promotion == null || promotion == PieceType.PAWN || promotion == PieceType.KING) {
+                return Notation.MALFORMED;
+            }
+            end--;
+            if (end > start && text.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+
+        if (end - start < 2) {
+            return Notation.MALFORMED;
+        }
+        int targetFile = text.charAt(end - 2) - 'a';
+        int targetRank = text.charAt(end - 1) - '1';
+        if (targetFile < 0 || targetFile > 7 || targetRank < 0 || targetRank > 7) {
+            return Notation.MALFORMED;
+        }
+        int target = (7 - targetRank) * 8 + targetFile;
+
+        //whatever stands between the piece letter and the target: a file, a rank or both, and the capture mark
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return Notation.MALFORMED;
+            }
+        }
+
+        int found = Notation.NO_MOVE;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            int source = Move.source(move);
+            if (Move.target(move) != target || Move.type(move) == Move.CASTLING || match.getPieceType(source) != type) {
+                continue;
+            }
+            if ((fromFile >= 0 && source % 8 != fromFile) || (fromRank >= 0 && 7 - source / 8 != fromRank)) {
+                continue;
+            }
+            if (Move.type(move) == Move.PROMOTION ? Move.promotionType(move) != promotion : promotion != null) {
+                continue;
+            }
+            if (found != Notation.NO_MOVE) {
+                return Notation.AMBIGUOUS;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    private static int parseCastling(CharSequence text, int start, int end, MoveList legalMoves) {
+        char o = text.charAt(start);
+        int length = end - start;
+        boolean kingSide = length == 3 && text.charAt(start + 1) == '-' && text.charAt(start + 2) == o;
+        boolean queenSide = length == 5 && text.charAt(start + 1) == '-' && text.charAt(start + 2) == o
+                && text.charAt(start + 3) == '-' && text.charAt(start + 4) == o;
+        if (!kingSide && !queenSide) {
+            return Notation.MALFORMED;
+        }
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            if (Move.type(move) == Move.CASTLING && (Move.target(move) > Move.source(move)) == kingSide) {
+                return move;
+            }
+        }
+        return Notation.NO_MOVE;
+    }
+
+    public static String toString(ChessMatch match, int move) {
+        return write(match, move, new StringBuilder(8), new MoveList()).toString();
+    }
+
+    //appends the move as SAN, with the least disambiguation needed and a check or mate mark; legalMoves is scratch space
+    public static StringBuilder write(ChessMatch match, int move, StringBuilder sb, MoveList legalMoves) {
+        int source = Move.source(move);
+        int target = Move.target(move);
+        if (Move.type(move) == Move.CASTLING) {
+            sb.append(target > source ? "O-O" : "O-O-O");
+        } else {
+            PieceType type = match.getPieceType(source);
+            boolean capture = match.isCapture(move);
+            if (type == PieceType.PAWN) {
+                if (capture) {
+                    sb.append((char) ('a' + source % 8));
+                }
+            } else {
+                sb.append(Move.pieceLetter(type));
+                match.generateLegalMoves(legalMoves);
+                boolean ambiguous = false;
+                boolean sameFile = false;
+                boolean sameRank = false;
+                for (int i = 0; i < legalMoves.size(); i++) {
+                    int other = legalMoves.get(i);
+                    int otherSource = Move.source(other);
+                    if (otherSource != source && Move.target(other) == target && match.getPieceType(otherSource) == type) {
+                        ambiguous = true;
+                        sameFile |= otherSource % 8 == source % 8;
+                        sameRank |= otherSource / 8 == source / 8;
+                    }
+                }
+                if (ambiguous && (!sameFile || sameRank)) {
+                    sb.append((char) ('a' + source % 8));
+                }
+                if (ambiguous && sameFile) {
+                    sb.append((char) ('8' - source / 8));
+                }
+            }
+            if (capture) {
+                sb.append('x');
+            }
+            sb.append((char) ('a' + target % 8)).append((char) ('8' - target / 8));
+            if (Move.type(move) == Move.PROMOTION) {
+                sb.append('=').append(Move.pieceLetter(Move.promotionType(move)));
+            }
+        }
+
+        match.makeMove(move);
+        if (match.isInCheck()) {
+            match.generateLegalMoves(legalMoves);
+            sb.append(legalMoves.isEmpty() ? '#' : '+');
+        }
+        match.undoMove();
+        return sb;
+    }
+
+    static PieceType pieceType(char letter) {
+        return switch (letter) {
+            case 'P' -> PieceType.PAWN;
+            case 'N' -> PieceType.KNIGHT;
+            case 'B' -> PieceType.BISHOP;
+            case 'R' -> PieceType.ROOK;
+            case 'Q' -> PieceType.QUEEN;
+            case 'K' -> PieceType.KING;
+            default -> null;
+        };
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+}
@@ -0,0 +1,64 @@
+package chess.notation;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+import chess.enums.PieceType;
+
+//coordinate notation: source and target square, optionally split by '-' or 'x', then an optional promotion letter
+public final class Uci {
+
+    private Uci() {
+    }
+
+    public static int parse(ChessMatch match, CharSequence text, MoveList legalMoves) {
+        return parse(match, text, 0, text.length(), legalMoves);
+    }
+
+    public static int parse(ChessMatch match, CharSequence text, int start, int end, MoveList legalMoves) {
+        int source = Notation.parseSquare(text, start);
+        int i = start + 2;
+        if (i < end && Notation.isSeparator(text.charAt(i))) {
+            i++;
+        }
+        int target = i + 2 <= end ? Notation.parseSquare(text, i) : Notation.MALFORMED;
+        if (source < 0 || target < 0) {
+            return Notation.MALFORMED;
+        }
+        i += 2;
+
+        PieceType promotion = null;
+        if (i < end && text.charAt(i) == '=') {
+            i++;
+        }
+        if (i < end && Character.isLetter(text.charAt(i))) {
+            promotion = San.pieceType(Character.toUpperCase(text.charAt(i++)));
+            if (promotion == null || promotion == PieceType.PAWN || promotion == PieceType.KING) {
+                return Notation.MALFORMED;
+            }
+        }
+        while (i < end && (text.charAt(i) == '+' || text.charAt(i) == '#')) {
+            i++;
+        }
+        if (i != end) {
+            return Notation.MALFORMED;
+        }
+
+        match.generateLegalMoves(legalMoves);
+        for (int j = 0; j < legalMoves.size(); j++) {
+            int move = legalMoves.get(j);
+            if (Move.source(move) != source || Move.target(move) != target) {
+                continue;
+            }
+            //a promotion without a letter is taken as a queen, the first one generated
+            if (Move.type(move) != Move.PROMOTION || promotion == null || Move.promotionType(move) == promotion) {
+                return move;
+            }
+        }
+        return Notation.NO_MOVE;
+    }
+
+    public static String toString(int move) {
+        return Move.toString(move);
+    }
+}
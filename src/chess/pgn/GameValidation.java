@@ -0,0 +1,43 @@
+package chess.pgn;
+
+public class GameValidation {
+
+    public enum Status {
+        //FAILED: the validator itself threw while replaying the game
+        VALID, ILLEGAL, UNPARSABLE, FAILED
+    }
+
+    private PgnGame game;
+    private Status status;
+    private int plies;
+    private String message;
+
+    public GameValidation(PgnGame game, Status status, int plies, String message) {
+        this.game = game;
+        this.status = status;
+        this.plies = plies;
+        this.message = message;
+    }
+
+    public PgnGame getGame() {
+        return game;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    //plies replayed before the game ended or failed
+    public int getPlies() {
+        return plies;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return game + ": " + status + (message == null ? "" : " at ply " + (plies + 1) + ", " + message);
+    }
+}
@@ -0,0 +1,38 @@
+package chess.pgn;
+
+import java.util.Map;
+
+public class PgnGame {
+
+    private long number;
+    private Map<String, String> tags;
+    private String movetext;
+
+    public PgnGame(long number, Map<String, String> tags, String movetext) {
+        this.number = number;
+        this.tags = tags;
+        this.movetext = movetext;
+    }
+
+    //1 for the first game of the file
+    public long getNumber() {
+        return number;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public String getMovetext() {
+        return movetext;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + number + " " + tags.getOrDefault("White", "?") + " - " + tags.getOrDefault("Black", "?");
+    }
+}
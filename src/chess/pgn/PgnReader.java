@@ -0,0 +1,103 @@
+package chess.pgn;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//reads one game at a time, so only the game being read is held in memory however large the file is
+public class PgnReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private BufferedReader reader;
+    private String pendingLine;
+    private long gamesRead;
+
+    public PgnReader(Reader reader) {
+        this.reader = new BufferedReader(reader, BUFFER_SIZE);
+    }
+
+    //Latin-1 maps every byte to a char, so odd bytes in player names can not stop the read; moves are plain ASCII
+    public PgnReader(Path file) throws IOException {
+        this(new InputStreamReader(Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ)), StandardCharsets.ISO_8859_1));
+    }
+
+    public long getGamesRead() {
+        return gamesRead;
+    }
+
+    //the next game, or null at the end of the input
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        StringBuilder movetext = new StringBuilder();
+        String line;
+        while ((line = nextLine()) != null) {
+            if (line.startsWith("%")) {
+                continue;
+            }
+            if (line.startsWith("[")) {
+                //a tag after the movetext starts the next game
+                if (movetext.length() > 0) {
+                    pendingLine = line;
+                    break;
+                }
+                parseTag(line, tags);
+            } else if (!line.isBlank()) {
+                movetext.append(line).append('\n');
+            }
+        }
+        if (tags.isEmpty() && movetext.length() == 0) {
+            return null;
+        }
+        return new PgnGame(++gamesRead, tags, movetext.toString());
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String nextLine() throws IOException {
+        if (pendingLine != null) {
+            String line = pendingLine;
+            pendingLine = null;
+            return line;
+        }
+        return reader.readLine();
+    }
+
+    //[Name "Value"], with \" and \\ escapes inside the value
+    private static void parseTag(String line, Map<String, String> tags) {
+        int i = 1;
+        while (i < line.length() && line.charAt(i) == ' ') {
+            i++;
+        }
+        int nameStart = i;
+        while (i < line.length() && line.charAt(i) != ' ' && line.charAt(i) != '"') {
+            i++;
+        }
+        String name = line.substring(nameStart, i);
+        int quote = line.indexOf('"', i);
+        if (name.isEmpty() || quote < 0) {
+            return;
+        }
+        StringBuilder value = new StringBuilder();
+        for (i = quote + 1; i < line.length() && line.charAt(i) != '"'; i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                c = line.charAt(++i);
+            }
+            value.append(c);
+        }
+        tags.put(name, value.toString());
+    }
+}
@@ -0,0 +1,83 @@
+package chess.pgn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+//filled by all the workers at once; only the first failures are kept, so a bad archive can not fill the heap
+public class PgnSummary {
+
+    public static final int MAX_FAILURES = 100;
+
+    private final LongAdder games = new LongAdder();
+    private final LongAdder valid = new LongAdder();
+    private final LongAdder illegal = new LongAdder();
+    private final LongAdder unparsable = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder plies = new LongAdder();
+    private final List<GameValidation> failures = new ArrayList<>();
+    private long timeMillis;
+
+    void add(GameValidation validation) {
+        games.increment();
+        plies.add(validation.getPlies());
+        switch (validation.getStatus()) {
+            case VALID -> valid.increment();
+            case ILLEGAL -> illegal.increment();
+            case UNPARSABLE -> unparsable.increment();
+            case FAILED -> failed.increment();
+        }
+        if (validation.getStatus() != GameValidation.Status.VALID) {
+            synchronized (failures) {
+                if (failures.size() < MAX_FAILURES) {
+                    failures.add(validation);
+                }
+            }
+        }
+    }
+
+    void setTimeMillis(long timeMillis) {
+        this.timeMillis = timeMillis;
+    }
+
+    public long getGames() {
+        return games.sum();
+    }
+
+    public long getValid() {
+        return valid.sum();
+    }
+
+    public long getIllegal() {
+        return illegal.sum();
+    }
+
+    public long getUnparsable() {
+        return unparsable.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getPlies() {
+        return plies.sum();
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public List<GameValidation> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+
+    @Override
+    public String toString() {
+        long gamesPerSecond = timeMillis > 0 ? getGames() * 1000 / timeMillis : getGames();
+        return "games " + getGames() + " valid " + getValid() + " illegal " + getIllegal() + " unparsable " + getUnparsable()
+                + " failed " + getFailed() + " plies " + getPlies() + " time " + timeMillis + " ms (" + gamesPerSecond + " games/s)";
+    }
+}
@@ -0,0 +1,173 @@
+package chess.pgn;
+
+import chess.ChessMatch;
+import chess.MatchListener;
+import chess.MoveList;
+import chess.exceptions.ChessException;
+import chess.notation.Notation;
+import chess.notation.San;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public final class PgnValidator {
+
+    private static final ThreadLocal<MoveList> MOVES = ThreadLocal.withInitial(MoveList::new);
+
+    private PgnValidator() {
+    }
+
+    //the reading thread hands games to the workers through a short queue; when it is full the reader validates
+    //the game itself, so it can never run ahead of the workers by more than the queue
+    public static PgnSummary validate(Path file, int threads) throws IOException {
+        long start = System.currentTimeMillis();
+        PgnSummary summary = new PgnSummary();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "pgn-validator");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        try (PgnReader reader = new PgnReader(file)) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                PgnGame next = game;
+                workers.execute(() -> summary.add(validateSafely(next)));
+            }
+        } finally {
+            workers.shutdown();
+            try {
+                workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        summary.setTimeMillis(System.currentTimeMillis() - start);
+        return summary;
+    }
+
+    //a game that breaks the validator is still counted, as a failure, instead of being lost on a pool thread
+    private static GameValidation validateSafely(PgnGame game) {
+        try {
+            return validate(game);
+        } catch (RuntimeException e) {
+            return new GameValidation(game, GameValidation.Status.FAILED, 0, "validation failed: " + e);
+        }
+    }
+
+    public static GameValidation validate(PgnGame game) {
+        return validate(game, null);
+    }
+
+    //replays the movetext through performChessMove, skipping comments, variations, NAGs and move numbers; the
+    //listener, when there is one, is set on the replayed match, so it sees every move of the game
+    public static GameValidation validate(PgnGame game, MatchListener listener) {
+        ChessMatch match;
+        try {
+            String fen = game.getTag("FEN");
+            match = fen != null ? ChessMatch.fromFen(fen) : new ChessMatch();
+        } catch (ChessException e) {
+            return new GameValidation(game, GameValidation.Status.UNPARSABLE, 0, e.getMessage());
+        }
+        match.setListener(listener);
+
+        MoveList moves = MOVES.get();
+        String text = game.getMovetext();
+        int length = text.length();
+        int plies = 0;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c <= ' ') {
+                i++;
+            } else if (c == '{') {
+                i = skipPast(text, i, '}');
+            } else if (c == ';') {
+                i = skipPast(text, i, '\n');
+            } else if (c == '(') {
+                i = skipVariation(text, i);
+            } else if (c == '$') {
+                i = skipDigits(text, i + 1);
+            } else {
+                int end = i;
+                while (end < length && !isDelimiter(text.charAt(end))) {
+                    end++;
+                }
+                int start = skipMoveNumber(text, i, end);
+                if (isResult(text, i, end)) {
+                    break;
+                }
+                i = end;
+                if (start == end) {
+                    continue;
+                }
+                int move = San.parse(match, text, start, end, moves);
+                if (move < 0) {
+                    GameValidation.Status status = move == Notation.MALFORMED ? GameValidation.Status.UNPARSABLE : GameValidation.Status.ILLEGAL;
+                    String reason = move == Notation.AMBIGUOUS ? "ambiguous move " : move == Notation.MALFORMED ? "unreadable move " : "illegal move ";
+                    return new GameValidation(game, status, plies, reason + text.substring(start, end));
+                }
+                match.performChessMove(move);
+                plies++;
+            }
+        }
+        return new GameValidation(game, GameValidation.Status.VALID, plies, null);
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c <= ' ' || c == '{' || c == '}' || c == '(' || c == ')' || c == ';' || c == '$';
+    }
+
+    //"12." and "12..." are skipped, also when the move follows without a space ("12.e4")
+    private static int skipMoveNumber(String text, int start, int end) {
+        int i = skipDigits(text, start);
+        if (i == start || i == end || text.charAt(i) != '.') {
+            return start;
+        }
+        while (i < end && text.charAt(i) == '.') {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isResult(String text, int start, int end) {
+        return text.startsWith("1-0", start) && end - start == 3
+                || text.startsWith("0-1", start) && end - start == 3
+                || text.startsWith("1/2-1/2", start) && end - start == 7
+                || text.charAt(start) == '*' && end - start == 1;
+    }
+
+    private static int skipDigits(String text, int i) {
+        while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipPast(String text, int i, char close) {
+        int end = text.indexOf(close, i + 1);
+        return end < 0 ? text.length() : end + 1;
+    }
+
+    //variations nest and may hold comments with parentheses in them
+    private static int skipVariation(String text, int i) {
+        int depth = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                i = skipPast(text, i, '}');
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+}
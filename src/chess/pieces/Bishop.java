@@ -1,9 +1,10 @@
 package chess.pieces;
 
 import board.Board;
-import board.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.enums.Color;
+import chess.enums.PieceType;
 
 public class Bishop extends ChessPiece {
 
@@ -11,56 +12,18 @@ public class Bishop extends ChessPiece {
         super(board, color);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.BISHOP;
+    }
+
     @Override
     public String toString() {
         return "B";
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0,0);
-
-        //nw
-        p.setValues(this.position.getRow() - 1, this.position.getColumn() - 1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() - 1, p.getColumn() - 1);
-        }
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //ne
-        p.setValues(this.position.getRow() - 1, this.position.getColumn() + 1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() - 1, p.getColumn() + 1);
-        }
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //se
-        p.setValues(this.position.getRow() + 1, this.position.getColumn() + 1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() + 1, p.getColumn() + 1);
-        }
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //sw
-        p.setValues(this.position.getRow() + 1, this.position.getColumn() - 1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-            p.setValues(p.getRow() + 1, p.getColumn() - 1);
-        }
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        return matrix;
+    public long possibleMovesBitboard() {
+        return Attacks.bishopAttacks(square, getBoard().getOccupied()) & ~getChessBoard().getColorBitboard(getColor());
     }
 }
@@ -1,116 +1,61 @@
 package chess.pieces;
 
 import board.Board;
-import board.Piece;
-import board.Position;
-import chess.ChessMatch;
+import chess.Attacks;
+import chess.Castling;
+import chess.ChessBoard;
 import chess.ChessPiece;
-import chess.ChessPosition;
 import chess.enums.Color;
+import chess.enums.PieceType;
 
 public class King extends ChessPiece {
 
-    private ChessMatch chessMatch;
-
-    public King(Board board, Color color, ChessMatch chessMatch) {
+    public King(Board board, Color color) {
         super(board, color);
-        this.chessMatch = chessMatch;
     }
 
     @Override
-    public String toString() {
-        return "K";
+    public PieceType getType() {
+        return PieceType.KING;
     }
 
-    private boolean canMove(Position position) {
-        ChessPiece piece = (ChessPiece) getBoard().piece(position);
-        return piece == null || piece.getColor() != this.getColor();
+    @Override
+    public String toString() {
+        return "K";
     }
 
-    private boolean testRookCastling(Position position) {
-        ChessPiece piece = (ChessPiece) getBoard().piece(position);
-        return piece instanceof Rook && piece.getColor() == this.getColor() && piece.getMoveCount() == 0;
+    private boolean testRookCastling(int square) {
+        return getChessBoard().pieceIndex(square) == ChessBoard.index(getColor(), PieceType.ROOK);
     }
 
-
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-        Position p = new Position(0,0);
-
-        //above
-        p.setValues(position.getRow() - 1, position.getColumn());
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //below
-        p.setValues(position.getRow() + 1, position.getColumn());
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
+    public long possibleMovesBitboard() {
+        ChessBoard board = getChessBoard();
+        long moves = Attacks.kingAttacks(square) & ~board.getColorBitboard(getColor());
 
-        //left
-        p.setValues(position.getRow(), position.getColumn() - 1);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //right
-        p.setValues(position.getRow(), position.getColumn() + 1);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //nw
-        p.setValues(position.getRow() - 1, position.getColumn() - 1);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //ne
-        p.setValues(position.getRow() - 1, position.getColumn() + 1);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //sw
-        p.setValues(position.getRow() + 1, position.getColumn() - 1);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //se
-        p.setValues(position.getRow() + 1, position.getColumn() + 1);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
+        //special move castling: the rights are lost as soon as the king or the rook moves
+        Color opponent = getColor() == Color.WHITE ? Color.BLACK : Color.WHITE;
+        int rights = board.getCastlingRights();
+        if (square == Castling.kingSquare(getColor()) && !board.isSquareAttacked(square, opponent)) {
+            long occupied = board.getOccupied();
 
-        //special move castling
-        if(getMoveCount() == 0 && !chessMatch.getCheck()) {
             //king side castling
-            Position kingSideRook = new Position(position.getRow(), position.getColumn() + 3);
-            if(testRookCastling(kingSideRook)) {
-                Position p1 = new Position(position.getRow(), position.getColumn() + 1);
-                Position p2 = new Position(position.getRow(), position.getColumn() + 2);
-                if(!getBoard().thereIsAPiece(p1) && !getBoard().thereIsAPiece(p2)) {
-                    matrix[position.getRow()][position.getColumn() + 2] = true;
+            if ((rights & Castling.kingSide(getColor())) != 0 && testRookCastling(square + 3)) {
+                long between = (1L << (square + 1)) | (1L << (square + 2));
+                if ((occupied & between) == 0 && !board.isSquareAttacked(square + 1, opponent) && !board.isSquareAttacked(square + 2, opponent)) {
+                    moves |= 1L << (square + 2);
                 }
             }
 
             //queen side castling
-            Position queenSideRook = new Position(position.getRow(), position.getColumn() - 4);
-            if(testRookCastling(queenSideRook)) {
-                Position p1 = new Position(position.getRow(), position.getColumn() - 1);
-                Position p2 = new Position(position.getRow(), position.getColumn() - 2);
-                Position p3 = new Position(position.getRow(), position.getColumn() - 3);
-                if(!getBoard().thereIsAPiece(p1) && !getBoard().thereIsAPiece(p2) && !getBoard().thereIsAPiece(p3)) {
-                    matrix[position.getRow()][position.getColumn() - 2] = true;
+            if ((rights & Castling.queenSide(getColor())) != 0 && testRookCastling(square - 4)) {
+                long between = (1L << (square - 1)) | (1L << (square - 2)) | (1L << (square - 3));
+                if ((occupied & between) == 0 && !board.isSquareAttacked(square - 1, opponent) && !board.isSquareAttacked(square - 2, opponent)) {
+                    moves |= 1L << (square - 2);
                 }
             }
         }
 
-        return matrix;
+        return moves;
     }
 }
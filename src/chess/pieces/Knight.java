@@ -1,9 +1,10 @@
 package chess.pieces;
 
 import board.Board;
-import board.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.enums.Color;
+import chess.enums.PieceType;
 
 public class Knight extends ChessPiece {
 
@@ -12,60 +13,17 @@ public class Knight extends ChessPiece {
     }
 
     @Override
-    public String toString() {
-        return "N";
+    public PieceType getType() {
+        return PieceType.KNIGHT;
     }
 
-    public boolean canMove(Position position) {
-        ChessPiece piece = (ChessPiece) getBoard().piece(position);
-        return piece == null || piece.getColor() != this.getColor();
+    @Override
+    public String toString() {
+        return "N";
     }
 
-    public boolean[][] possibleMoves() {
-        boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-        Position p = new Position(0,0);
-
-        p.setValues(position.getRow() - 1, position.getColumn() - 2);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() - 2, position.getColumn() - 1);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() - 2, position.getColumn() + 1);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() - 1, position.getColumn() + 2);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() + 1, position.getColumn() + 2);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() + 2, position.getColumn() + 1);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() + 2, position.getColumn() - 1);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        p.setValues(position.getRow() + 1, position.getColumn() - 2);
-        if(getBoard().positionExists(p) && canMove(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        return matrix;
+    @Override
+    public long possibleMovesBitboard() {
+        return Attacks.knightAttacks(square) & ~getChessBoard().getColorBitboard(getColor());
     }
 }
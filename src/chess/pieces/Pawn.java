@@ -1,9 +1,11 @@
 package chess.pieces;
 
 import board.Board;
-import board.Position;
+import chess.Attacks;
+import chess.ChessBoard;
 import chess.ChessPiece;
 import chess.enums.Color;
+import chess.enums.PieceType;
 
 public class Pawn extends ChessPiece {
 
@@ -11,64 +13,35 @@ public class Pawn extends ChessPiece {
         super(board, color);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.PAWN;
+    }
+
     @Override
     public String toString() {
         return "P";
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0, 0);
-
-        if (getColor() == Color.WHITE) {
-            p.setValues(position.getRow() - 1, position.getColumn());
-            if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-                matrix[p.getRow()][p.getColumn()] = true;
-            }
-
-            p.setValues(position.getRow() - 2, position.getColumn());
-            Position p2 = new Position(position.getRow() - 1, position.getColumn());
-            if (
-                    getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getMoveCount() == 0 && getBoard().positionExists(p2) && !getBoard().thereIsAPiece(p2)
-            ) {
-                matrix[p.getRow()][p.getColumn()] = true;
-            }
-
-            p.setValues(position.getRow() - 1, position.getColumn() - 1);
-            if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-                matrix[p.getRow()][p.getColumn()] = true;
-            }
-
-            p.setValues(position.getRow() - 1, position.getColumn() + 1);
-            if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-                matrix[p.getRow()][p.getColumn()] = true;
-            }
-        } else {
-            p.setValues(position.getRow() + 1, position.getColumn());
-            if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-                matrix[p.getRow()][p.getColumn()] = true;
-            }
-
-            p.setValues(position.getRow() + 2, position.getColumn());
-            Position p2 = new Position(position.getRow() + 1, position.getColumn());
-            if (
-                    getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getMoveCount() == 0 && getBoard().positionExists(p2) && !getBoard().thereIsAPiece(p2)
-            ) {
-                matrix[p.getRow()][p.getColumn()] = true;
-            }
-
-            p.setValues(position.getRow() + 1, position.getColumn() - 1);
-            if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-                matrix[p.getRow()][p.getColumn()] = true;
-            }
-
-            p.setValues(position.getRow() + 1, position.getColumn() + 1);
-            if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-                matrix[p.getRow()][p.getColumn()] = true;
+    public long possibleMovesBitboard() {
+        ChessBoard board = getChessBoard();
+        long empty = ~board.getOccupied();
+        long opponent = board.getColorBitboard(getColor() == Color.WHITE ? Color.BLACK : Color.WHITE);
+        long moves = Attacks.pawnAttacks(getColor(), square) & opponent;
+
+        //white pawns move towards row 0, black pawns towards row 7
+        int forward = getColor() == Color.WHITE ? -8 : 8;
+        int oneStep = square + forward;
+        if (oneStep >= 0 && oneStep < 64 && (empty & (1L << oneStep)) != 0) {
+            moves |= 1L << oneStep;
+
+            int twoSteps = oneStep + forward;
+            if (!hasMoved() && twoSteps >= 0 && twoSteps < 64 && (empty & (1L << twoSteps)) != 0) {
+                moves |= 1L << twoSteps;
             }
         }
 
-        return matrix;
+        return moves;
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,10 @@
 package chess.pieces;
 
 import board.Board;
-import board.Position;
+import chess.Attacks;
 import chess.ChessPiece;
 import chess.enums.Color;
+import chess.enums.PieceType;
 
 public class Rook extends ChessPiece {
 
@@ -11,56 +12,18 @@ public class Rook extends ChessPiece {
         super(board, color);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.ROOK;
+    }
+
     @Override
     public String toString() {
         return "R";
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0,0);
-
-        //check above positions
-        p.setValues(this.position.getRow() - 1, this.position.getColumn());
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-            p.setRow(p.getRow() - 1);
-        }
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //check below positions
-        p.setValues(this.position.getRow() + 1, this.position.getColumn());
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-            p.setRow(p.getRow() + 1);
-        }
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //check left positions
-        p.setValues(this.position.getRow(), this.position.getColumn() - 1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-            p.setColumn(p.getColumn() - 1);
-        }
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        //check right positions
-        p.setValues(this.position.getRow(), this.position.getColumn() + 1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-            p.setColumn(p.getColumn() + 1);
-        }
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            matrix[p.getRow()][p.getColumn()] = true;
-        }
-
-        return matrix;
+    public long possibleMovesBitboard() {
+        return Attacks.rookAttacks(square, getBoard().getOccupied()) & ~getChessBoard().getColorBitboard(getColor());
     }
 }
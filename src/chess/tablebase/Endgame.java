@@ -0,0 +1,48 @@
+package chess.tablebase;
+
+import chess.enums.PieceType;
+
+//the endgames with tables: a king and the listed pieces against a bare king; the tables are built with white as the
+//stronger side, and a position with black as the stronger side is probed with the board mirrored
+public enum Endgame {
+    KQK(PieceType.QUEEN),
+    KRK(PieceType.ROOK),
+    KPK(PieceType.PAWN),
+    KBNK(PieceType.BISHOP, PieceType.KNIGHT);
+
+    public static final int STRONG_TO_MOVE = 0;
+    public static final int WEAK_TO_MOVE = 1;
+
+    private PieceType[] pieces;
+
+    Endgame(PieceType... pieces) {
+        this.pieces = pieces;
+    }
+
+    public PieceType[] getPieces() {
+        return pieces.clone();
+    }
+
+    public int getPieceCount() {
+        return pieces.length;
+    }
+
+    PieceType piece(int i) {
+        return pieces[i];
+    }
+
+    //every placement of the two kings and the pieces, with either side to move, illegal ones included
+    public int size() {
+        return 2 << (6 * (2 + pieces.length));
+    }
+
+    public String getFileName() {
+        return name() + ".tb";
+    }
+
+    //index: side to move, strong king, weak king, then the squares of the pieces in the order listed, 6 bits each
+    public int index(int side, int strongKing, int weakKing, int first, int second) {
+        int index = ((side * 64 + strongKing) * 64 + weakKing) * 64 + first;
+        return pieces.length == 2 ? index * 64 + second : index;
+    }
+}
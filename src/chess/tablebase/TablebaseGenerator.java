@@ -0,0 +1,381 @@
+package chess.tablebase;
+
+import chess.Attacks;
+import chess.enums.Color;
+import chess.enums.PieceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+//retrograde analysis: starts from the mates and walks backwards one ply at a time, so every position is reached first
+//at its true distance to mate; a value is 0 for a draw (or an illegal position), otherwise the plies to mate + 1,
+//counted for the side to move: the stronger side mates in an odd number of plies, the bare king is mated in an even one
+public final class TablebaseGenerator {
+
+    private static final int CHUNK = 1 << 14;
+    private static final int MAX_VALUE = 127;
+
+    private Endgame endgame;
+    private int pieceCount;
+    private byte[] values;
+    //KPK promotes into these
+    private byte[] queenTable;
+    private byte[] rookTable;
+
+    private TablebaseGenerator(Endgame endgame, Map<Endgame, byte[]> generated) {
+        this.endgame = endgame;
+        pieceCount = endgame.getPieceCount();
+        values = new byte[endgame.size()];
+        if (endgame == Endgame.KPK) {
+            queenTable = generated.get(Endgame.KQK);
+            rookTable = generated.get(Endgame.KRK);
+            if (queenTable == null || rookTable == null) {
+                throw new IllegalArgumentException("KPK needs the KQK and KRK tables first");
+            }
+        }
+    }
+
+    //the work of every ply is split over the pool; generated holds the tables already built, which KPK needs
+    public static byte[] generate(Endgame endgame, ForkJoinPool pool, Map<Endgame, byte[]> generated) {
+        return new TablebaseGenerator(endgame, generated).generate(pool);
+    }
+
+    private byte[] generate(ForkJoinPool pool) {
+        //mates, and the wins by promotion, bucketed by their distance
+        List<ForkJoinTask<IntList[]>> tasks = new ArrayList<>();
+        for (int start = 0; start < values.length; start += CHUNK) {
+            int from = start;
+            int to = Math.min(start + CHUNK, values.length);
+            tasks.add(pool.submit(() -> seed(from, to)));
+        }
+        IntList[] levels = new IntList[MAX_VALUE + 1];
+        for (ForkJoinTask<IntList[]> task : tasks) {
+            IntList[] seeds = task.join();
+            for (int level = 0; level < seeds.length; level++) {
+                if (seeds[level] != null) {
+                    if (levels[level] == null) {
+                        levels[level] = new IntList();
+                    }
+                    levels[level].addAll(seeds[level]);
+                }
+            }
+        }
+
+        IntList frontier = levels[0] != null ? levels[0] : new IntList();
+        for (int plies = 0; plies < MAX_VALUE - 1; plies++) {
+            if (frontier.size() == 0 && !hasSeedsAfter(levels, plies)) {
+                break;
+            }
+            IntList current = frontier;
+            List<ForkJoinTask<IntList>> steps = new ArrayList<>();
+            for (int start = 0; start < current.size(); start += CHUNK) {
+                int from = start;
+                int to = Math.min(start + CHUNK, current.size());
+                int level = plies;
+                steps.add(pool.submit(() -> step(current, from, to, level)));
+            }
+            IntList next = new IntList();
+            for (ForkJoinTask<IntList> step : steps) {
+                next.addAll(step.join());
+            }
+            //a promotion win of this length counts unless a shorter way to the same position was found
+            IntList promotions = levels[plies + 1];
+            if (promotions != null) {
+                for (int i = 0; i < promotions.size(); i++) {
+                    int index = promotions.get(i);
+                    if (values[index] == 0) {
+                        values[index] = (byte) (plies + 2);
+                        next.add(index);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return values;
+    }
+
+    private static boolean hasSeedsAfter(IntList[] levels, int plies) {
+        for (int level = plies + 1; level < levels.length; level++) {
+            if (levels[level] != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //marks the mates in [from, to) and collects them at level 0, and the KPK positions won by promoting at theirs;
+    //promotions are only candidates, written when their level comes
+    private IntList[] seed(int from, int to) {
+        IntList[] levels = new IntList[MAX_VALUE + 1];
+        int[] squares = new int[pieceCount];
+        for (int index = from; index < to; index++) {
+            int side = side(index);
+            int strongKing = strongKing(index);
+            int weakKing = weakKing(index);
+            decodePieces(index, squares);
+            if (!isLegal(side, strongKing, weakKing, squares)) {
+                continue;
+            }
+            if (side == Endgame.WEAK_TO_MOVE) {
+                long occupied = occupied(strongKing, weakKing, squares);
+                boolean inCheck = (attacks(squares, occupied) & (1L << weakKing)) != 0;
+                if (inCheck && !hasWeakMove(strongKing, weakKing, squares, occupied)) {
+                    values[index] = 1;
+                    add(levels, 0, index);
+                }
+            } else if (endgame == Endgame.KPK && squares[0] < 16) {
+                int level = promotionLevel(strongKing, weakKing, squares[0]);
+                if (level > 0) {
+                    add(levels, level, index);
+                }
+            }
+        }
+        return levels;
+    }
+
+    //the shortest win by promoting the pawn (white pawns move up the board, to lower squares), 0 when there is none
+    private int promotionLevel(int strongKing, int weakKing, int pawn) {
+        int target = pawn - 8;
+        if (target == strongKing || target == weakKing) {
+            return 0;
+        }
+        int best = 0;
+        for (byte[] table : new byte[][]{queenTable, rookTable}) {
+            int value = table[Endgame.KQK.index(Endgame.WEAK_TO_MOVE, strongKing, weakKing, target, 0)];
+            if (value > 0 && (best == 0 || value < best)) {
+                best = value;
+            }
+        }
+        //the child is lost in value - 1 plies, so the promotion wins in value plies
+        return best;
+    }
+
+    private static void add(IntList[] levels, int level, int index) {
+        if (levels[level] == null) {
+            levels[level] = new IntList();
+        }
+        levels[level].add(index);
+    }
+
+    //the positions one ply before those in [from, to) of the frontier, whose distance is plies
+    private IntList step(IntList frontier, int from, int to, int plies) {
+        IntList next = new IntList();
+        int[] squares = new int[pieceCount];
+        int[] before = new int[pieceCount];
+        byte value = (byte) (plies + 2);
+        for (int i = from; i < to; i++) {
+            int index = frontier.get(i);
+            int strongKing = strongKing(index);
+            int weakKing = weakKing(index);
+            decodePieces(index, squares);
+            long occupied = occupied(strongKing, weakKing, squares);
+
+            if (side(index) == Endgame.WEAK_TO_MOVE) {
+                //the bare king is lost: every strong move that leads here wins
+                long origins = Attacks.kingAttacks(strongKing) & ~occupied;
+                while (origins != 0) {
+                    int origin = Long.numberOfTrailingZeros(origins);
+                    origins &= origins - 1;
+                    markWin(Endgame.STRONG_TO_MOVE, origin, weakKing, squares, value, next);
+                }
+                for (int p = 0; p < pieceCount; p++) {
+                    System.arraycopy(squares, 0, before, 0, pieceCount);
+                    origins = pieceOrigins(p, squares[p], occupied);
+                    while (origins != 0) {
+                        before[p] = Long.numberOfTrailingZeros(origins);
+                        origins &= origins - 1;
+                        markWin(Endgame.STRONG_TO_MOVE, strongKing, weakKing, before, value, next);
+                    }
+                }
+            } else {
+                //the stronger side wins: a bare king move that led here loses if all its other moves lose too
+                long origins = Attacks.kingAttacks(weakKing) & ~occupied;
+                while (origins != 0) {
+                    int origin = Long.numberOfTrailingZeros(origins);
+                    origins &= origins - 1;
+                    if (!isLegal(Endgame.WEAK_TO_MOVE, strongKing, origin, squares)) {
+                        continue;
+                    }
+                    int previous = index(Endgame.WEAK_TO_MOVE, strongKing, origin, squares);
+                    if (values[previous] == 0 && allMovesLose(strongKing, origin, squares)) {
+                        values[previous] = value;
+                        next.add(previous);
+                    }
+                }
+            }
+        }
+        return next;
+    }
+
+    private void markWin(int side, int strongKing, int weakKing, int[] squares, byte value, IntList next) {
+        if (!isLegal(side, strongKing, weakKing, squares)) {
+            return;
+        }
+        int index = index(side, strongKing, weakKing, squares);
+        if (values[index] == 0) {
+            values[index] = value;
+            next.add(index);
+        }
+    }
+
+    //squares the piece could have come from with a move that was not a capture (there is nothing to capture)
+    private long pieceOrigins(int p, int square, long occupied) {
+        if (endgame.piece(p) != PieceType.PAWN) {
+            return attacks(p, square, occupied) & ~occupied;
+        }
+        long origins = 0L;
+        int single = square + 8;
+        if (single < 56 && (occupied & (1L << single)) == 0) {
+            origins |= 1L << single;
+            //a double step lands on the fourth rank, row 4
+            if (square >= 32 && square < 40 && (occupied & (1L << (square + 16))) == 0) {
+                origins |= 1L << (square + 16);
+            }
+        }
+        return origins;
+    }
+
+    //every legal move of the bare king leads to a position already known as won for the stronger side; a capture
+    //leaves the table for a draw, and no moves at all is a mate or a stalemate, never a loss found here
+    private boolean allMovesLose(int strongKing, int weakKing, int[] squares) {
+        long occupied = occupied(strongKing, weakKing, squares);
+        long targets = weakKingTargets(strongKing, weakKing);
+        boolean moved = false;
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (!isWeakMoveLegal(weakKing, target, squares, occupied)) {
+                continue;
+            }
+            if ((occupied & (1L << target)) != 0 || values[index(Endgame.STRONG_TO_MOVE, strongKing, target, squares)] == 0) {
+                return false;
+            }
+            moved = true;
+        }
+        return moved;
+    }
+
+    private boolean hasWeakMove(int strongKing, int weakKing, int[] squares, long occupied) {
+        long targets = weakKingTargets(strongKing, weakKing);
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (isWeakMoveLegal(weakKing, target, squares, occupied)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long weakKingTargets(int strongKing, int weakKing) {
+        return Attacks.kingAttacks(weakKing) & ~Attacks.kingAttacks(strongKing) & ~(1L << strongKing);
+    }
+
+    //the target must not be attacked once the king has left its square; a captured piece attacks nothing
+    private boolean isWeakMoveLegal(int weakKing, int target, int[] squares, long occupied) {
+        long without = occupied & ~(1L << weakKing);
+        for (int p = 0; p < pieceCount; p++) {
+            if (squares[p] != target && (attacks(p, squares[p], without) & (1L << target)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //no two men on a square, kings apart, no pawn on the first or last rank, and the side that just moved not in check
+    private boolean isLegal(int side, int strongKing, int weakKing, int[] squares) {
+        long occupied = occupied(strongKing, weakKing, squares);
+        if (Long.bitCount(occupied) != 2 + pieceCount || (Attacks.kingAttacks(strongKing) & (1L << weakKing)) != 0) {
+            return false;
+        }
+        for (int p = 0; p < pieceCount; p++) {
+            if (endgame.piece(p) == PieceType.PAWN && (squares[p] < 8 || squares[p] >= 56)) {
+                return false;
+            }
+        }
+        return side == Endgame.WEAK_TO_MOVE || (attacks(squares, occupied) & (1L << weakKing)) == 0;
+    }
+
+    private long attacks(int[] squares, long occupied) {
+        long attacks = 0L;
+        for (int p = 0; p < pieceCount; p++) {
+            attacks |= attacks(p, squares[p], occupied);
+        }
+        return attacks;
+    }
+
+    private long attacks(int p, int square, long occupied) {
+        return switch (endgame.piece(p)) {
+            case QUEEN -> Attacks.queenAttacks(square, occupied);
+            case ROOK -> Attacks.rookAttacks(square, occupied);
+            case BISHOP -> Attacks.bishopAttacks(square, occupied);
+            case KNIGHT -> Attacks.knightAttacks(square);
+            case PAWN -> Attacks.pawnAttacks(Color.WHITE, square);
+            case KING -> Attacks.kingAttacks(square);
+        };
+    }
+
+    private static long occupied(int strongKing, int weakKing, int[] squares) {
+        long occupied = (1L << strongKing) | (1L << weakKing);
+        for (int square : squares) {
+            occupied |= 1L << square;
+        }
+        return occupied;
+    }
+
+    private int index(int side, int strongKing, int weakKing, int[] squares) {
+        return endgame.index(side, strongKing, weakKing, squares[0], pieceCount > 1 ? squares[1] : 0);
+    }
+
+    private int side(int index) {
+        return index >>> (6 * (2 + pieceCount));
+    }
+
+    private int strongKing(int index) {
+        return (index >>> (6 * (1 + pieceCount))) & 63;
+    }
+
+    private int weakKing(int index) {
+        return (index >>> (6 * pieceCount)) & 63;
+    }
+
+    private void decodePieces(int index, int[] squares) {
+        for (int p = 0; p < pieceCount; p++) {
+            squares[p] = (index >>> (6 * (pieceCount - 1 - p))) & 63;
+        }
+    }
+
+    //growable list of positions; a frontier can hold millions, so no boxing
+    private static class IntList {
+
+        private int[] items = new int[64];
+        private int size;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        void addAll(IntList other) {
+            if (size + other.size > items.length) {
+                items = Arrays.copyOf(items, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.items, 0, items, size, other.size);
+            size += other.size;
+        }
+
+        int get(int i) {
+            return items[i];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
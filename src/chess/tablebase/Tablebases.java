@@ -0,0 +1,185 @@
+package chess.tablebase;
+
+import chess.ChessMatch;
+import chess.enums.Color;
+import chess.enums.PieceType;
+import chess.exceptions.ChessException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+//the tables of a directory, memory-mapped; a file holds a header (magic, entry count) and then the values of
+//TablebaseGenerator packed in 7 bits each, so the largest table, KBNK, takes 29 MB instead of 33
+public class Tablebases implements Closeable {
+
+    //scores on the scale Engine uses: a mate in n plies is MATE - n for the side that mates, -(MATE - n) for the other
+    public static final int MATE = 30000;
+    public static final int DRAW = 0;
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final Color[] COLORS = Color.values();
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final int MAGIC = 0x54424B31;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int BITS = 7;
+
+    private Map<Endgame, FileChannel> channels = new EnumMap<>(Endgame.class);
+    private Map<Endgame, MappedByteBuffer> tables = new EnumMap<>(Endgame.class);
+
+    private Tablebases() {
+    }
+
+    //maps the tables found in the directory; a missing one is just not probed
+    public static Tablebases open(Path directory) throws IOException {
+        Tablebases tablebases = new Tablebases();
+        try {
+            for (Endgame endgame : Endgame.values()) {
+                Path file = directory.resolve(endgame.getFileName());
+                if (Files.exists(file)) {
+                    tablebases.map(endgame, file);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            tablebases.close();
+            throw e;
+        }
+        return tablebases;
+    }
+
+    private void map(Endgame endgame, Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channels.put(endgame, channel);
+        MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (channel.size() != fileSize(endgame.size()) || table.getInt(0) != MAGIC || table.getInt(Integer.BYTES) != endgame.size()) {
+            throw new ChessException("Invalid tablebase " + file + ".");
+        }
+        tables.put(endgame, table);
+    }
+
+    public boolean contains(Endgame endgame) {
+        return tables.containsKey(endgame);
+    }
+
+    public static void write(Path file, byte[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize(values.length));
+        buffer.putInt(MAGIC).putInt(values.length);
+        long bit = 0;
+        for (byte value : values) {
+            int offset = HEADER_SIZE + (int) (bit >>> 3);
+            int shift = 16 - BITS - (int) (bit & 7);
+            int word = ((buffer.get(offset) & 0xFF) << 8 | (buffer.get(offset + 1) & 0xFF)) | (value & 0x7F) << shift;
+            buffer.put(offset, (byte) (word >>> 8)).put(offset + 1, (byte) word);
+            bit += BITS;
+        }
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    //one spare byte at the end, so every value can be read as two bytes
+    private static long fileSize(int entries) {
+        return HEADER_SIZE + ((long) entries * BITS + 7) / 8 + 1;
+    }
+
+    //the stored value, as TablebaseGenerator made it
+    public int value(Endgame endgame, int index) {
+        MappedByteBuffer table = tables.get(endgame);
+        long bit = (long) index * BITS;
+        int offset = HEADER_SIZE + (int) (bit >>> 3);
+        int word = (table.get(offset) & 0xFF) << 8 | (table.get(offset + 1) & 0xFF);
+        return (word >>> (16 - BITS - (int) (bit & 7))) & 0x7F;
+    }
+
+    //the exact score for the side to move, or UNKNOWN when no table covers the position; a mate the fifty-move rule
+    //would cut short is UNKNOWN too, since the table counts the moves to mate and not the moves to the next capture
+    public int probe(ChessMatch match) {
+        if (match.getCastlingRights() != 0) {
+            return UNKNOWN;
+        }
+        Color strong = null;
+        for (Color color : COLORS) {
+            for (PieceType type : TYPES) {
+                if (type != PieceType.KING && match.getBitboard(color, type) != 0) {
+                    if (strong != null && strong != color) {
+                        return UNKNOWN;
+                    }
+                    strong = color;
+                }
+            }
+        }
+        if (strong == null) {
+            return DRAW;
+        }
+
+        Endgame endgame = endgame(match, strong);
+        if (endgame == null || !tables.containsKey(endgame)) {
+            return UNKNOWN;
+        }
+        //black as the stronger side is white with the board upside down
+        int mirror = strong == Color.WHITE ? 0 : 56;
+        Color weak = strong == Color.WHITE ? Color.BLACK : Color.WHITE;
+        int side = match.getCurrentPlayer() == strong ? Endgame.STRONG_TO_MOVE : Endgame.WEAK_TO_MOVE;
+        int strongKing = Long.numberOfTrailingZeros(match.getBitboard(strong, PieceType.KING)) ^ mirror;
+        int weakKing = Long.numberOfTrailingZeros(match.getBitboard(weak, PieceType.KING)) ^ mirror;
+        int first = Long.numberOfTrailingZeros(match.getBitboard(strong, endgame.piece(0))) ^ mirror;
+        int second = endgame.getPieceCount() > 1 ? Long.numberOfTrailingZeros(match.getBitboard(strong, endgame.piece(1))) ^ mirror : 0;
+
+        int value = value(endgame, endgame.index(side, strongKing, weakKing, first, second));
+        if (value == 0) {
+            return DRAW;
+        }
+        int plies = value - 1;
+        if (match.getHalfmoveClock() + plies > 100) {
+            return UNKNOWN;
+        }
+        return side == Endgame.STRONG_TO_MOVE ? MATE - plies : -(MATE - plies);
+    }
+
+    //the endgame with exactly these pieces for the stronger side
+    private static Endgame endgame(ChessMatch match, Color strong) {
+        for (Endgame endgame : Endgame.values()) {
+            long pieces = 0L;
+            boolean single = true;
+            for (int i = 0; i < endgame.getPieceCount(); i++) {
+                long bitboard = match.getBitboard(strong, endgame.piece(i));
+                single &= Long.bitCount(bitboard) == 1;
+                pieces |= bitboard;
+            }
+            if (single && pieces == pieceBitboard(match, strong)) {
+                return endgame;
+            }
+        }
+        return null;
+    }
+
+    private static long pieceBitboard(ChessMatch match, Color color) {
+        long pieces = 0L;
+        for (PieceType type : TYPES) {
+            if (type != PieceType.KING) {
+                pieces |= match.getBitboard(color, type);
+            }
+        }
+        return pieces;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FileChannel channel : channels.values()) {
+            channel.close();
+        }
+        channels.clear();
+        tables.clear();
+    }
+}
@@ -0,0 +1,126 @@
+package host;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.PositionSnapshot;
+import host.exceptions.SessionException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+//runs many matches on a few threads: a session holds no thread while it waits, it is only scheduled when a command arrives
+public class MatchHost implements AutoCloseable {
+
+    private final Map<Long, MatchSession> sessions;
+    private final AtomicLong nextId;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService evictor;
+    private final long idleTimeoutMillis;
+
+    public MatchHost(int threads, long idleTimeoutMillis) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The host needs at least 1 thread");
+        }
+        sessions = new ConcurrentHashMap<>();
+        nextId = new AtomicLong(1);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        AtomicInteger count = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "match-host-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "match-host-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        //0 keeps sessions until they are closed
+        if (idleTimeoutMillis > 0) {
+            long period = Math.max(idleTimeoutMillis / 4, 1);
+            evictor.scheduleAtFixedRate(this::evictIdleSessions, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public MatchHost() {
+        this(Runtime.getRuntime().availableProcessors(), TimeUnit.MINUTES.toMillis(30));
+    }
+
+    public long createSession() {
+        return register(new ChessMatch());
+    }
+
+    public long createSession(PositionSnapshot snapshot) {
+        return register(ChessMatch.fromSnapshot(snapshot));
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public boolean hasSession(long id) {
+        return sessions.containsKey(id);
+    }
+
+    //runs the command on the session's match after every command submitted before it
+    public <T> CompletableFuture<T> submit(long id, Function<ChessMatch, T> command) {
+        MatchSession session = sessions.get(id);
+        if (session == null) {
+            return CompletableFuture.failedFuture(new SessionException("There is no session " + id + "."));
+        }
+        return session.submit(command);
+    }
+
+    public CompletableFuture<ChessPiece> move(long id, ChessPosition source, ChessPosition target) {
+        return submit(id, match -> match.performChessMove(source, target));
+    }
+
+    public CompletableFuture<ChessPiece> move(long id, int move) {
+        return submit(id, match -> match.performChessMove(move));
+    }
+
+    public CompletableFuture<PositionSnapshot> snapshot(long id) {
+        return submit(id, ChessMatch::toSnapshot);
+    }
+
+    public void closeSession(long id) {
+        MatchSession session = sessions.remove(id);
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    //a session is idle when nothing is queued or running and no command arrived within the timeout
+    void evictIdleSessions() {
+        long now = System.currentTimeMillis();
+        for (MatchSession session : sessions.values()) {
+            //the session decides under its own lock, so a command submitted meanwhile either keeps it or is refused
+            sessions.computeIfPresent(session.getId(), (id, current) -> current == session && session.closeIfIdle(now, idleTimeoutMillis) ? null : current);
+        }
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        for (MatchSession session : sessions.values()) {
+            session.close();
+        }
+        sessions.clear();
+        workers.shutdown();
+    }
+
+    private long register(ChessMatch match) {
+        long id = nextId.getAndIncrement();
+        sessions.put(id, new MatchSession(id, match, workers));
+        return id;
+    }
+}
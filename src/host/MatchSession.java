@@ -0,0 +1,144 @@
+package host;
+
+import chess.ChessMatch;
+import host.exceptions.SessionException;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+//one match and its command queue; commands run one at a time on whatever pool thread drains the queue,
+//so the match itself is never touched by two threads at once and needs no locking
+public class MatchSession {
+
+    //commands run per turn on a pool thread before the session yields it to other sessions
+    private static final int BATCH = 32;
+
+    private final long id;
+    private final ChessMatch match;
+    private final Executor executor;
+    private final Queue<Command<?>> commands;
+    private final AtomicBoolean scheduled;
+    private volatile long lastActivity;
+    private volatile boolean closed;
+
+    MatchSession(long id, ChessMatch match, Executor executor) {
+        this.id = id;
+        this.match = match;
+        this.executor = executor;
+        commands = new ConcurrentLinkedQueue<>();
+        scheduled = new AtomicBoolean();
+        lastActivity = System.currentTimeMillis();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    boolean isIdle() {
+        return commands.isEmpty() && !scheduled.get();
+    }
+
+    //the closed check and the queueing happen under the session's lock, so a command is either queued before the
+    //session closes, and runs, or refused with a SessionException
+    <T> CompletableFuture<T> submit(Function<ChessMatch, T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) {
+                result.completeExceptionally(new SessionException("Session " + id + " is closed."));
+                return result;
+            }
+            lastActivity = System.currentTimeMillis();
+            commands.add(new Command<>(command, result));
+            schedule();
+        }
+        return result;
+    }
+
+    //commands already queued still run; new ones are refused
+    synchronized void close() {
+        closed = true;
+    }
+
+    //closes the session only if nothing is queued or running and nothing arrived within the timeout
+    synchronized boolean closeIfIdle(long now, long idleTimeoutMillis) {
+        if (!isIdle() || now - lastActivity < idleTimeoutMillis) {
+            return false;
+        }
+        closed = true;
+        return true;
+    }
+
+    //a pool that refuses the session (MatchHost has shut it down) can never run it again, so the session closes and
+    //everything queued fails instead of waiting forever
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    closed = true;
+                    scheduled.set(false);
+                    Command<?> command;
+                    while ((command = commands.poll()) != null) {
+                        command.result.completeExceptionally(new SessionException("Session " + id + " can not run: the host is shut down."));
+                    }
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Command<?> command = commands.poll();
+                if (command == null) {
+                    break;
+                }
+                command.run(match);
+            }
+        } finally {
+            lastActivity = System.currentTimeMillis();
+            scheduled.set(false);
+            //a command may have been queued after the last poll but before the flag was cleared
+            if (!commands.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private static final class Command<T> {
+
+        private final Function<ChessMatch, T> function;
+        private final CompletableFuture<T> result;
+
+        Command(Function<ChessMatch, T> function, CompletableFuture<T> result) {
+            this.function = function;
+            this.result = result;
+        }
+
+        //an Error still fails the future, and then goes on to the pool thread
+        void run(ChessMatch match) {
+            try {
+                result.complete(function.apply(match));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } catch (Error e) {
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+}
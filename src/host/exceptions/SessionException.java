@@ -0,0 +1,10 @@
+package host.exceptions;
+
+import chess.exceptions.ChessException;
+
+public class SessionException extends ChessException {
+
+    public SessionException(String message) {
+        super(message);
+    }
+}